@@ -0,0 +1,126 @@
+package com.example.financetracker;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares the aggregates SpendingAnalyzer reads on a large synthetic ledger:
+ * the old path (getAll() folded into a HashMap in Java) against the summary
+ * row plus the top-N rollup query it uses now. Both must agree.
+ */
+@RunWith(AndroidJUnit4.class)
+public class AnalyzerBenchmarkTest {
+    private static final String TAG = "AnalyzerBench";
+    private static final String DB_NAME = "analyzer-bench.db";
+    private static final int ROWS = 200_000;
+    private static final int RUNS = 5;
+    private static final int TOP = 3;
+
+    private Context context;
+    private AppDatabase db;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DB_NAME);
+        db = AppDatabase.build(context, DB_NAME);
+        db.getOpenHelper().getWritableDatabase().execSQL(
+                "WITH RECURSIVE n(i) AS (SELECT 1 UNION ALL SELECT i + 1 FROM n WHERE i < " + ROWS + ") " +
+                "INSERT INTO transactions (title, category, amount, is_expense, formatted_date, " +
+                "created_at, epoch_day, is_goal_deposit, goal_id, is_anomaly) " +
+                "SELECT 'Row ' || i, 'Category ' || (i % 12), " +
+                "CASE WHEN i % 10 = 0 THEN 2000 ELSE -(i % 12 + 1) * 3 END, i % 10 != 0, " +
+                "'Jan 01, 2024', 1704067200000 + i * 60000, 19723 + i / 1440, 0, -1, 0 FROM n");
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+        context.deleteDatabase(DB_NAME);
+    }
+
+    @Test
+    public void aggregateQueries_matchAndBeatJavaFold() {
+        long[] before = new long[RUNS];
+        long[] after = new long[RUNS];
+        double[] javaTotals = null;
+        List<CategoryTotal> sqlTop = null;
+        List<String> javaTop = null;
+        AccountSummary summary = null;
+
+        for (int r = 0; r < RUNS; r++) {
+            long start = SystemClock.elapsedRealtimeNanos();
+            Map<String, Double> byCategory = new HashMap<>();
+            javaTotals = foldInJava(db.transactionDao().getAll(), byCategory);
+            javaTop = topCategories(byCategory);
+            before[r] = SystemClock.elapsedRealtimeNanos() - start;
+
+            start = SystemClock.elapsedRealtimeNanos();
+            summary = db.accountSummaryDao().getSummary();
+            sqlTop = db.monthlyCategoryTotalDao().getTopExpenseCategories(TOP);
+            after[r] = SystemClock.elapsedRealtimeNanos() - start;
+        }
+
+        long beforeMedian = median(before);
+        long afterMedian = median(after);
+        Log.i(TAG, ROWS + " rows: getAll + HashMap " + beforeMedian / 1000 + " us, "
+                + "summary + top-" + TOP + " query " + afterMedian / 1000 + " us");
+
+        assertEquals(javaTotals[0], summary.totalExpense, 0.01);
+        assertEquals(javaTotals[1], summary.totalIncome, 0.01);
+        assertEquals(TOP, sqlTop.size());
+        for (int i = 0; i < TOP; i++) {
+            assertEquals(javaTop.get(i), sqlTop.get(i).category);
+        }
+        assertTrue("Aggregate path was not faster: " + afterMedian + " ns vs " + beforeMedian,
+                afterMedian < beforeMedian);
+    }
+
+    // The pre-aggregation SpendingAnalyzer loop
+    private static double[] foldInJava(List<Transaction> transactions, Map<String, Double> byCategory) {
+        double spent = 0;
+        double income = 0;
+        for (Transaction t : transactions) {
+            if (t.amount < 0) {
+                spent += -t.amount;
+                byCategory.put(t.category, byCategory.getOrDefault(t.category, 0.0) - t.amount);
+            } else {
+                income += t.amount;
+            }
+        }
+        return new double[]{spent, income};
+    }
+
+    private static List<String> topCategories(Map<String, Double> byCategory) {
+        List<Map.Entry<String, Double>> entries = new ArrayList<>(byCategory.entrySet());
+        entries.sort((a, b) -> Double.compare(b.getValue(), a.getValue()));
+        List<String> top = new ArrayList<>();
+        for (int i = 0; i < Math.min(TOP, entries.size()); i++) {
+            top.add(entries.get(i).getKey());
+        }
+        return top;
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
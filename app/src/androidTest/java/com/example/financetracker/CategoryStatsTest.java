@@ -0,0 +1,134 @@
+package com.example.financetracker;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that the delete and edit triggers keep category_stats equal to the
+ * expenses left in the ledger: exact Welford moments straight away, and a
+ * sketch re-estimated from the remaining rows on the next read.
+ */
+@RunWith(AndroidJUnit4.class)
+public class CategoryStatsTest {
+    private static final String DB_NAME = "category-stats-test.db";
+    private static final String[] CATEGORIES = {"Food", "Transport", "Gifts"};
+
+    private Context context;
+    private AppDatabase db;
+    private final Random random = new Random(11);
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DB_NAME);
+        db = AppDatabase.build(context, DB_NAME);
+
+        List<Transaction> rows = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            double amount = random.nextInt(4) == 0 ? random.nextInt(500) + 1 : -(random.nextInt(200) + 1);
+            rows.add(transaction(CATEGORIES[i % CATEGORIES.length], amount, i));
+        }
+        db.transactionDao().insertAll(rows);
+        // Inserts are folded by app code, so seed the stats from the ledger
+        db.rebuildSummaries();
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+        context.deleteDatabase(DB_NAME);
+    }
+
+    @Test
+    public void deleteRemovesContribution() {
+        List<Transaction> rows = db.transactionDao().getFirstPage(200);
+        db.transactionDao().delete(rows.subList(0, 60));
+
+        assertTrue(db.categoryStatsDao().get("Food").stale);
+        assertMatchesLedger();
+    }
+
+    @Test
+    public void editMovesBetweenCategoriesAndSign() {
+        List<Transaction> rows = db.transactionDao().getFirstPage(200);
+        for (int i = 0; i < 50; i++) {
+            Transaction t = rows.get(random.nextInt(rows.size()));
+            t.category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+            t.amount = random.nextBoolean() ? -(random.nextInt(300) + 1) : random.nextInt(300) + 1;
+            t.isExpense = t.amount < 0;
+            db.transactionDao().update(t);
+        }
+        assertMatchesLedger();
+    }
+
+    @Test
+    public void deletingEveryExpenseRemovesRow() {
+        List<Transaction> gifts = new ArrayList<>();
+        for (Transaction t : db.transactionDao().getFirstPage(200)) {
+            if ("Gifts".equals(t.category) && t.isExpense) {
+                gifts.add(t);
+            }
+        }
+        db.transactionDao().delete(gifts);
+
+        assertNull(db.getCategoryStats("Gifts"));
+    }
+
+    private void assertMatchesLedger() {
+        for (String category : CATEGORIES) {
+            List<Double> expenses = new ArrayList<>();
+            for (Transaction t : db.transactionDao().getAll()) {
+                if (category.equals(t.category) && t.isExpense) {
+                    expenses.add(Math.abs(t.amount));
+                }
+            }
+            double[] amounts = new double[expenses.size()];
+            double mean = 0;
+            for (int i = 0; i < amounts.length; i++) {
+                amounts[i] = expenses.get(i);
+                mean += amounts[i];
+            }
+            mean /= amounts.length;
+            double m2 = 0;
+            for (double amount : amounts) {
+                m2 += (amount - mean) * (amount - mean);
+            }
+            CategoryStats expected = new CategoryStats();
+            AnomalyDetector.reestimateSketch(expected, amounts, amounts.length);
+
+            CategoryStats actual = db.getCategoryStats(category);
+            assertNotNull(category, actual);
+            assertFalse(category, actual.stale);
+            assertEquals(category, amounts.length, actual.sampleCount);
+            assertEquals(category, mean, actual.mean, 1e-6);
+            assertEquals(category, m2, actual.m2, 1e-6 * Math.max(1, m2));
+            // Fewer than SKETCH_ROWS expenses remain, so the re-estimate saw all of them
+            assertEquals(category, expected.median, actual.median, 1e-9);
+            assertEquals(category, expected.mad, actual.mad, 1e-9);
+        }
+    }
+
+    private static Transaction transaction(String category, double amount, int day) {
+        Transaction t = new Transaction();
+        t.title = "Row " + day;
+        t.category = category;
+        t.amount = amount;
+        t.isExpense = amount < 0;
+        t.epochDay = 19723 + day;
+        t.createdAt = EpochDays.toUtcMillis(t.epochDay);
+        return t;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.financetracker;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * Measures list and balance read latency on the production database
+ * configuration, first idle and then while a bulk import holds the write
+ * transaction. Under WAL the second set must not wait for the writer.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ConcurrentReadBenchmarkTest {
+    private static final String TAG = "ConcurrentReadBench";
+    private static final String DB_NAME = "concurrency-bench.db";
+    private static final int SEED_ROWS = 10_000;
+    private static final int WRITE_ROWS = 200_000;
+    private static final int PAGE_SIZE = 50;
+
+    private Context context;
+    private AppDatabase db;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DB_NAME);
+        db = AppDatabase.build(context, DB_NAME);
+        db.runInTransaction(() -> db.transactionDao().insertAll(makeRows(SEED_ROWS)));
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+        context.deleteDatabase(DB_NAME);
+    }
+
+    @Test
+    public void readsStayFlatDuringBulkWrite() throws Exception {
+        assertTrue(db.getOpenHelper().getWritableDatabase().isWriteAheadLoggingEnabled());
+
+        long[] idle = new long[200];
+        for (int i = 0; i < idle.length; i++) {
+            idle[i] = timeRead();
+        }
+
+        List<Transaction> bulk = makeRows(WRITE_ROWS);
+        Future<?> writer = AppExecutors.getWriteExecutor().submit(() ->
+                db.runInTransaction(() -> db.transactionDao().insertAll(bulk)));
+
+        List<Long> concurrent = new ArrayList<>();
+        while (!writer.isDone()) {
+            concurrent.add(timeRead());
+        }
+        writer.get();
+
+        long idleMedian = median(idle);
+        long[] busy = new long[concurrent.size()];
+        for (int i = 0; i < busy.length; i++) {
+            busy[i] = concurrent.get(i);
+        }
+        long busyMedian = median(busy);
+        Log.i(TAG, "Idle median " + idleMedian / 1000 + " us, during write median "
+                + busyMedian / 1000 + " us over " + busy.length + " reads");
+
+        assertTrue("No reads completed while the writer was running", busy.length > 1);
+        assertTrue("Read latency degraded while writing: " + busyMedian + " ns vs " + idleMedian,
+                busyMedian < Math.max(idleMedian * 10, 5_000_000L));
+    }
+
+    private long timeRead() {
+        long start = SystemClock.elapsedRealtimeNanos();
+        db.transactionDao().getFirstPage(PAGE_SIZE);
+        db.accountSummaryDao().getBalance();
+        return SystemClock.elapsedRealtimeNanos() - start;
+    }
+
+    private static List<Transaction> makeRows(int count) {
+        List<Transaction> rows = new ArrayList<>(count);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < count; i++) {
+            Transaction t = new Transaction();
+            t.title = "Row " + i;
+            t.category = i % 2 == 0 ? "Food" : "Transport";
+            t.amount = -(i % 100);
+            t.isExpense = true;
+            t.createdAt = now - i * 60_000L;
+            rows.add(t);
+        }
+        return rows;
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
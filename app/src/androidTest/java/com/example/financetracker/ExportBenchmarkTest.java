@@ -0,0 +1,116 @@
+package com.example.financetracker;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Exports a 1M-row synthetic ledger to a discarding stream and samples the
+ * live heap along the way. The ledger as a List would not fit under the
+ * app's heap cap; streaming from the cursor must keep the live heap flat.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ExportBenchmarkTest {
+    private static final String TAG = "ExportBenchmark";
+    private static final String DB_NAME = "export-bench.db";
+    private static final int ROWS = 1_000_000;
+    private static final long SAMPLE_EVERY_BYTES = 8L * 1024 * 1024;
+    private static final long MAX_HEAP_GROWTH = 8L * 1024 * 1024;
+
+    private Context context;
+    private AppDatabase db;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DB_NAME);
+        db = AppDatabase.build(context, DB_NAME);
+        SupportSQLiteDatabase sqlite = db.getOpenHelper().getWritableDatabase();
+        // Generated in SQL so the seed itself never holds the rows in memory
+        sqlite.execSQL("WITH RECURSIVE n(i) AS (SELECT 1 UNION ALL SELECT i + 1 FROM n WHERE i < " + ROWS + ") " +
+                "INSERT INTO transactions (title, category, amount, is_expense, formatted_date, " +
+                "created_at, epoch_day, is_goal_deposit, goal_id, is_anomaly) " +
+                "SELECT CASE WHEN i % 10 = 0 THEN 'Row ' || i || ', \"quoted\"' ELSE 'Row ' || i END, " +
+                "CASE WHEN i % 2 = 0 THEN 'Food' ELSE 'Transport' END, " +
+                "-(i % 100), 1, 'Jan 01, 2024', 1704067200000 + i * 60000, " +
+                "19723 + i / 1440, 0, -1, 0 FROM n");
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+        context.deleteDatabase(DB_NAME);
+    }
+
+    @Test
+    public void csvExport_1mRows_flatHeap() throws IOException {
+        runExport(TransactionExporter.Format.CSV);
+    }
+
+    @Test
+    public void jsonExport_1mRows_flatHeap() throws IOException {
+        runExport(TransactionExporter.Format.JSON);
+    }
+
+    private void runExport(TransactionExporter.Format format) throws IOException {
+        long baseline = liveHeap();
+        HeapSamplingStream out = new HeapSamplingStream();
+
+        long start = SystemClock.elapsedRealtime();
+        int rows = new TransactionExporter(db).export(out, format, null, 0, Long.MAX_VALUE);
+        long elapsed = SystemClock.elapsedRealtime() - start;
+
+        Log.i(TAG, format + ": " + rows + " rows, " + out.bytes / 1024 + " KB in " + elapsed
+                + " ms; live heap peak +" + (out.peakHeap - baseline) / 1024 + " KB of "
+                + Runtime.getRuntime().maxMemory() / (1024 * 1024) + " MB cap");
+
+        assertEquals(ROWS, rows);
+        assertTrue("Export held " + (out.peakHeap - baseline) + " bytes of heap",
+                out.peakHeap - baseline < MAX_HEAP_GROWTH);
+    }
+
+    private static long liveHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        runtime.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // Discards output, collecting garbage every few MB to see what the export keeps alive
+    private static class HeapSamplingStream extends OutputStream {
+        long bytes;
+        long peakHeap;
+        private long nextSample = SAMPLE_EVERY_BYTES;
+
+        @Override
+        public void write(int b) {
+            count(1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count(len);
+        }
+
+        private void count(int len) {
+            bytes += len;
+            if (bytes >= nextSample) {
+                nextSample += SAMPLE_EVERY_BYTES;
+                peakHeap = Math.max(peakHeap, liveHeap());
+            }
+        }
+    }
+}
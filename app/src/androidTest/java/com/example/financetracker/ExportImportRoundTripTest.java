@@ -0,0 +1,126 @@
+package com.example.financetracker;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Exports a ledger to CSV and imports the file into an empty database. Each
+ * row must come back on the same local day with the same title, category
+ * and amount, including rows created late in the evening.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ExportImportRoundTripTest {
+    private static final String SOURCE_DB_NAME = "round-trip-source.db";
+    private static final String TARGET_DB_NAME = "round-trip-target.db";
+    private static final Comparator<Transaction> BY_DAY_THEN_TITLE =
+            Comparator.<Transaction>comparingInt(t -> t.epochDay).thenComparing(t -> t.title);
+
+    private Context context;
+    private AppDatabase source;
+    private AppDatabase target;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(SOURCE_DB_NAME);
+        context.deleteDatabase(TARGET_DB_NAME);
+        source = AppDatabase.build(context, SOURCE_DB_NAME);
+        target = AppDatabase.build(context, TARGET_DB_NAME);
+    }
+
+    @After
+    public void tearDown() {
+        source.close();
+        target.close();
+        context.deleteDatabase(SOURCE_DB_NAME);
+        context.deleteDatabase(TARGET_DB_NAME);
+    }
+
+    @Test
+    public void csvRoundTrip_keepsDates() throws IOException {
+        List<Transaction> rows = new ArrayList<>();
+        rows.add(transaction("Coffee", -3.2, "Food", localMillis(2024, Calendar.JANUARY, 5, 8, 15)));
+        rows.add(transaction("Late taxi, split", -18.5, "Transport",
+                localMillis(2024, Calendar.FEBRUARY, 29, 23, 30)));
+        rows.add(transaction("Salary", 2150, "Income", localMillis(2023, Calendar.DECEMBER, 31, 0, 5)));
+        rows.add(transaction("Rent", -1250, "Housing", localMillis(2024, Calendar.MARCH, 1, 12, 0)));
+        source.transactionDao().insertAll(rows);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int exported = new TransactionExporter(source).export(out, TransactionExporter.Format.CSV,
+                null, 0, Long.MAX_VALUE);
+        StatementImporter.ImportResult result = new StatementImporter(target).importStatement(
+                new ByteArrayInputStream(out.toByteArray()), StatementImporter.Format.CSV, null);
+
+        assertEquals(rows.size(), exported);
+        assertEquals(rows.size(), result.imported);
+        assertEquals(0, result.skipped);
+
+        List<Transaction> expected = source.transactionDao().getAll();
+        List<Transaction> actual = target.transactionDao().getAll();
+        expected.sort(BY_DAY_THEN_TITLE);
+        actual.sort(BY_DAY_THEN_TITLE);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Transaction e = expected.get(i);
+            Transaction a = actual.get(i);
+            assertEquals(e.title, e.epochDay, a.epochDay);
+            assertEquals(e.title, a.title);
+            assertEquals(e.category, a.category);
+            assertEquals(e.amount, a.amount, 0.001);
+            assertEquals(e.isExpense, a.isExpense);
+        }
+    }
+
+    @Test
+    public void jsonExport_writesIsoDate() throws IOException {
+        long createdAt = localMillis(2024, Calendar.FEBRUARY, 29, 23, 30);
+        List<Transaction> rows = new ArrayList<>();
+        rows.add(transaction("Late taxi", -18.5, "Transport", createdAt));
+        source.transactionDao().insertAll(rows);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new TransactionExporter(source).export(out, TransactionExporter.Format.JSON,
+                null, 0, Long.MAX_VALUE);
+
+        assertTrue(new String(out.toByteArray(), StandardCharsets.UTF_8)
+                .contains("\"date\":\"2024-02-29\""));
+    }
+
+    private static Transaction transaction(String title, double amount, String category,
+                                           long createdAt) {
+        Transaction transaction = new Transaction();
+        transaction.title = title;
+        transaction.amount = amount;
+        transaction.category = category;
+        transaction.isExpense = amount < 0;
+        transaction.createdAt = createdAt;
+        transaction.epochDay = EpochDays.fromMillis(createdAt);
+        return transaction;
+    }
+
+    private static long localMillis(int year, int month, int day, int hour, int minute) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(year, month, day, hour, minute);
+        return calendar.getTimeInMillis();
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.financetracker;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the TFLite model and the pure-Java trend forecaster on the same
+ * synthetic monthly series and logs each engine's error and latency, to
+ * inform the "engine" preference in PredictorHolder. Only sanity is
+ * asserted; device timings are not stable enough for a pass/fail bound.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ForecasterComparisonTest {
+    private static final String TAG = "ForecasterComparison";
+    private static final int SERIES = 500;
+    private static final int HISTORY_MONTHS = 36;
+
+    private final Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+
+    @Test
+    public void sameSeries_bothEngines() throws Exception {
+        Random random = new Random(42);
+        ForecastInput[] inputs = new ForecastInput[SERIES];
+        double[] actuals = new double[SERIES];
+        for (int s = 0; s < SERIES; s++) {
+            double[] months = new double[HISTORY_MONTHS + 1];
+            for (int i = 0; i < months.length; i++) {
+                months[i] = Math.max(0, 1000 + 300 * Math.sin(2 * Math.PI * i / 12)
+                        + random.nextGaussian() * 80);
+            }
+            inputs[s] = input(months, HISTORY_MONTHS);
+            actuals[s] = months[HISTORY_MONTHS];
+        }
+
+        SpendingPredictor model = new SpendingPredictor(context, 1, 1, true);
+        try {
+            double[] modelResult = run(model, inputs, actuals);
+            double[] trendResult = run(new TrendForecaster(), inputs, actuals);
+            Log.i(TAG, String.format("TFLite: MAE %.1f, %.0f us per forecast; " +
+                            "trend: MAE %.1f, %.0f us per forecast",
+                    modelResult[0], modelResult[1] / 1000, trendResult[0], trendResult[1] / 1000));
+
+            assertFalse(Double.isNaN(modelResult[0]));
+            assertFalse(Double.isNaN(trendResult[0]));
+        } finally {
+            model.close();
+        }
+    }
+
+    // {mean absolute error, mean nanoseconds per forecast}
+    private static double[] run(Forecaster forecaster, ForecastInput[] inputs, double[] actuals) {
+        for (ForecastInput input : inputs) {
+            forecaster.forecastNextMonth(input);
+        }
+
+        double error = 0;
+        long start = SystemClock.elapsedRealtimeNanos();
+        for (int i = 0; i < inputs.length; i++) {
+            error += Math.abs(forecaster.forecastNextMonth(inputs[i]) - actuals[i]);
+        }
+        long elapsed = SystemClock.elapsedRealtimeNanos() - start;
+        return new double[]{error / inputs.length, (double) elapsed / inputs.length};
+    }
+
+    // The model reads the recency-weighted amount, so fold the months the
+    // way the spending_features EWMA folds rows
+    private static ForecastInput input(double[] months, int count) {
+        ForecastInput input = new ForecastInput();
+        input.monthlyExpenses = months;
+        input.months = count;
+        double ewma = months[0];
+        for (int i = 1; i < count; i++) {
+            ewma += SpendingFeature.EWMA_ALPHA * (months[i] - ewma);
+        }
+        input.weightedAverage = (float) ewma;
+        return input;
+    }
+}
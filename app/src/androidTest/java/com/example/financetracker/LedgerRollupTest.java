@@ -0,0 +1,145 @@
+package com.example.financetracker;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Drives random inserts, updates and deletes through TransactionDao and
+ * checks after each phase that the trigger-maintained account_summary and
+ * monthly_category_totals rows equal the same aggregates computed from the
+ * ledger. Amounts are whole numbers so the sums compare exactly.
+ */
+@RunWith(AndroidJUnit4.class)
+public class LedgerRollupTest {
+    private static final String DB_NAME = "rollup-test.db";
+    private static final String[] CATEGORIES = {"Food", "Transport", "Income", null};
+
+    private Context context;
+    private AppDatabase db;
+    private SupportSQLiteDatabase sqlite;
+    private final Random random = new Random(7);
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DB_NAME);
+        db = AppDatabase.build(context, DB_NAME);
+        sqlite = db.getOpenHelper().getWritableDatabase();
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+        context.deleteDatabase(DB_NAME);
+    }
+
+    @Test
+    public void rollupsFollowInsertUpdateDelete() {
+        List<Transaction> rows = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            rows.add(randomTransaction());
+        }
+        db.transactionDao().insertAll(rows);
+        assertRollupsMatchLedger();
+
+        List<Transaction> stored = db.transactionDao().getFirstPage(300);
+        for (int i = 0; i < 100; i++) {
+            Transaction t = stored.get(random.nextInt(stored.size()));
+            t.amount = randomAmount();
+            t.isExpense = t.amount < 0;
+            t.category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+            t.epochDay += random.nextInt(61) - 30;
+            db.transactionDao().update(t);
+        }
+        assertRollupsMatchLedger();
+
+        db.transactionDao().delete(stored.get(0));
+        db.transactionDao().delete(stored.subList(1, 80));
+        assertRollupsMatchLedger();
+
+        db.transactionDao().delete(db.transactionDao().getFirstPage(1000));
+        assertRollupsMatchLedger();
+        assertEquals(0, count("SELECT COUNT(*) FROM monthly_category_totals"));
+    }
+
+    @Test
+    public void rollupsFollowRawUpdates() {
+        List<Transaction> rows = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            rows.add(randomTransaction());
+        }
+        db.transactionDao().insertAll(rows);
+
+        sqlite.execSQL("UPDATE transactions SET amount = -amount WHERE id % 3 = 0");
+        sqlite.execSQL("UPDATE transactions SET category = 'Moved' WHERE id % 5 = 0");
+        sqlite.execSQL("UPDATE transactions SET epoch_day = epoch_day - 40 WHERE id % 7 = 0");
+        sqlite.execSQL("DELETE FROM transactions WHERE id % 4 = 0");
+        assertRollupsMatchLedger();
+    }
+
+    private void assertRollupsMatchLedger() {
+        try (Cursor summary = sqlite.query("SELECT balance, total_income, total_expense, " +
+                "transaction_count FROM account_summary WHERE id = 1");
+             Cursor ledger = sqlite.query("SELECT IFNULL(SUM(amount), 0), " +
+                     "IFNULL(SUM(CASE WHEN amount >= 0 THEN amount ELSE 0 END), 0), " +
+                     "IFNULL(SUM(CASE WHEN amount < 0 THEN -amount ELSE 0 END), 0), " +
+                     "COUNT(*) FROM transactions")) {
+            assertTrue(summary.moveToFirst());
+            assertTrue(ledger.moveToFirst());
+            assertEquals("balance", ledger.getDouble(0), summary.getDouble(0), 0);
+            assertEquals("total_income", ledger.getDouble(1), summary.getDouble(1), 0);
+            assertEquals("total_expense", ledger.getDouble(2), summary.getDouble(2), 0);
+            assertEquals("transaction_count", ledger.getLong(3), summary.getLong(3));
+        }
+
+        String live = "SELECT CAST(strftime('%Y%m', epoch_day * 86400, 'unixepoch') AS INTEGER), " +
+                "IFNULL(category, ''), " +
+                "SUM(CASE WHEN amount < 0 THEN -amount ELSE 0 END), " +
+                "SUM(CASE WHEN amount >= 0 THEN amount ELSE 0 END), " +
+                "COUNT(*) FROM transactions GROUP BY 1, 2";
+        String stored = "SELECT month, category, expense_total, income_total, transaction_count " +
+                "FROM monthly_category_totals";
+        assertEquals("rollup rows missing from monthly_category_totals",
+                0, count("SELECT COUNT(*) FROM (" + live + " EXCEPT " + stored + ")"));
+        assertEquals("stale rows in monthly_category_totals",
+                0, count("SELECT COUNT(*) FROM (" + stored + " EXCEPT " + live + ")"));
+    }
+
+    private long count(String sql) {
+        try (Cursor cursor = sqlite.query(sql)) {
+            assertTrue(cursor.moveToFirst());
+            return cursor.getLong(0);
+        }
+    }
+
+    private Transaction randomTransaction() {
+        Transaction t = new Transaction();
+        t.title = "Row " + random.nextInt(1000);
+        t.category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+        t.amount = randomAmount();
+        t.isExpense = t.amount < 0;
+        t.epochDay = 19723 + random.nextInt(120);
+        t.createdAt = EpochDays.toUtcMillis(t.epochDay);
+        return t;
+    }
+
+    private double randomAmount() {
+        int amount = random.nextInt(1000) - 500;
+        return amount == 0 ? 1 : amount;
+    }
+}
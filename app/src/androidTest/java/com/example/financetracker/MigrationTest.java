@@ -0,0 +1,251 @@
+package com.example.financetracker;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+/**
+ * Upgrades a hand-built version 8 database (camelCase transaction columns,
+ * no created_at) through every migration. Opening it runs Room's own schema
+ * validation against the entities; the result is then compared with a
+ * database Room creates from scratch, including the indexes and triggers
+ * Room does not validate.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MigrationTest {
+    private static final String TAG = "MigrationTest";
+    private static final String DB_NAME = "migration-test.db";
+    private static final String FRESH_DB_NAME = "migration-fresh.db";
+    private static final int LARGE_ROW_COUNT = 500_000;
+
+    private Context context;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DB_NAME);
+        context.deleteDatabase(FRESH_DB_NAME);
+    }
+
+    @After
+    public void tearDown() {
+        context.deleteDatabase(DB_NAME);
+        context.deleteDatabase(FRESH_DB_NAME);
+    }
+
+    @Test
+    public void migrateLegacyV8_matchesFreshDatabase() {
+        createLegacyV8Database(3);
+
+        AppDatabase migrated = AppDatabase.build(context, DB_NAME);
+        AppDatabase fresh = AppDatabase.build(context, FRESH_DB_NAME);
+        try {
+            SupportSQLiteDatabase migratedDb = migrated.getOpenHelper().getWritableDatabase();
+            SupportSQLiteDatabase freshDb = fresh.getOpenHelper().getWritableDatabase();
+
+            assertEquals(freshDb.getVersion(), migratedDb.getVersion());
+            assertEquals(describeSchema(freshDb), describeSchema(migratedDb));
+        } finally {
+            migrated.close();
+            fresh.close();
+        }
+    }
+
+    @Test
+    public void migrateLegacyV8_keepsRows() {
+        createLegacyV8Database(3);
+
+        AppDatabase migrated = AppDatabase.build(context, DB_NAME);
+        try {
+            SupportSQLiteDatabase db = migrated.getOpenHelper().getWritableDatabase();
+            assertEquals(3, queryLong(db, "SELECT COUNT(*) FROM transactions"));
+            try (Cursor cursor = db.query("SELECT category, is_expense, formatted_date, " +
+                    "created_at, epoch_day FROM transactions WHERE id = 1")) {
+                assertTrue(cursor.moveToFirst());
+                assertEquals("Food", cursor.getString(0));
+                assertEquals(1, cursor.getInt(1));
+                assertEquals("Jan 01, 2024", cursor.getString(2));
+                // created_at comes from the display date, not the time of the upgrade
+                assertEquals(localMidnight(2024, Calendar.JANUARY, 1), cursor.getLong(3));
+                assertEquals(19723, cursor.getInt(4));
+            }
+            assertEquals(-30.0, queryDouble(db, "SELECT balance FROM account_summary"), 0.001);
+        } finally {
+            migrated.close();
+        }
+    }
+
+    @Test
+    public void migrateLegacyV8_unparseableDateFallsBackToNow() {
+        createLegacyV8Database(1);
+        SQLiteDatabase legacy = SQLiteDatabase.openDatabase(
+                context.getDatabasePath(DB_NAME).getPath(), null, SQLiteDatabase.OPEN_READWRITE);
+        legacy.execSQL("UPDATE transactions SET formattedDate = '1 janv. 2024'");
+        legacy.close();
+
+        long before = System.currentTimeMillis() / 1000 * 1000;
+        AppDatabase migrated = AppDatabase.build(context, DB_NAME);
+        try {
+            SupportSQLiteDatabase db = migrated.getOpenHelper().getWritableDatabase();
+            long createdAt = queryLong(db, "SELECT created_at FROM transactions WHERE id = 1");
+            assertTrue(createdAt >= before);
+            assertTrue(createdAt <= System.currentTimeMillis());
+        } finally {
+            migrated.close();
+        }
+    }
+
+    @Test
+    public void migrateLegacyV8_500kRows() {
+        createLegacyV8Database(LARGE_ROW_COUNT);
+
+        long start = SystemClock.elapsedRealtime();
+        AppDatabase migrated = AppDatabase.build(context, DB_NAME);
+        try {
+            SupportSQLiteDatabase db = migrated.getOpenHelper().getWritableDatabase();
+            long elapsed = SystemClock.elapsedRealtime() - start;
+            Log.i(TAG, "Migrated " + LARGE_ROW_COUNT + " rows in " + elapsed + " ms");
+
+            assertEquals(LARGE_ROW_COUNT, queryLong(db, "SELECT COUNT(*) FROM transactions"));
+            assertEquals(LARGE_ROW_COUNT,
+                    queryLong(db, "SELECT transaction_count FROM account_summary"));
+        } finally {
+            migrated.close();
+        }
+    }
+
+    // Table columns as Room validates them (name, type, not null, primary key
+    // position), index columns, and trigger bodies, keyed by object name
+    private static Map<String, String> describeSchema(SupportSQLiteDatabase db) {
+        Map<String, String> schema = new TreeMap<>();
+        List<String> tables = new ArrayList<>();
+        try (Cursor cursor = db.query("SELECT type, name, sql FROM sqlite_master " +
+                "WHERE name NOT LIKE 'sqlite_%' AND name != 'android_metadata'")) {
+            while (cursor.moveToNext()) {
+                String type = cursor.getString(0);
+                String name = cursor.getString(1);
+                if ("table".equals(type)) {
+                    tables.add(name);
+                } else if ("trigger".equals(type)) {
+                    schema.put("trigger " + name, cursor.getString(2).replaceAll("\\s+", " "));
+                }
+            }
+        }
+
+        for (String table : tables) {
+            StringBuilder columns = new StringBuilder();
+            try (Cursor cursor = db.query("PRAGMA table_info(`" + table + "`)")) {
+                while (cursor.moveToNext()) {
+                    columns.append(cursor.getString(cursor.getColumnIndexOrThrow("name")))
+                            .append(' ').append(cursor.getString(cursor.getColumnIndexOrThrow("type")))
+                            .append(cursor.getInt(cursor.getColumnIndexOrThrow("notnull")) == 1
+                                    ? " NOT NULL" : "")
+                            .append(" pk=").append(cursor.getInt(cursor.getColumnIndexOrThrow("pk")))
+                            .append(", ");
+                }
+            }
+            schema.put("table " + table, columns.toString());
+
+            List<String> indexes = new ArrayList<>();
+            try (Cursor cursor = db.query("PRAGMA index_list(`" + table + "`)")) {
+                while (cursor.moveToNext()) {
+                    indexes.add(cursor.getString(cursor.getColumnIndexOrThrow("name")));
+                }
+            }
+            for (String index : indexes) {
+                StringBuilder indexColumns = new StringBuilder();
+                try (Cursor cursor = db.query("PRAGMA index_info(`" + index + "`)")) {
+                    while (cursor.moveToNext()) {
+                        indexColumns.append(cursor.getString(cursor.getColumnIndexOrThrow("name")))
+                                .append(", ");
+                    }
+                }
+                schema.put("index " + index, table + " (" + indexColumns + ")");
+            }
+        }
+        return schema;
+    }
+
+    private static long queryLong(SupportSQLiteDatabase db, String sql) {
+        try (Cursor cursor = db.query(sql)) {
+            assertTrue(cursor.moveToFirst());
+            return cursor.getLong(0);
+        }
+    }
+
+    private static double queryDouble(SupportSQLiteDatabase db, String sql) {
+        try (Cursor cursor = db.query(sql)) {
+            assertTrue(cursor.moveToFirst());
+            return cursor.getDouble(0);
+        }
+    }
+
+    private static long localMidnight(int year, int month, int day) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(year, month, day);
+        return calendar.getTimeInMillis();
+    }
+
+    private void createLegacyV8Database(int rows) {
+        SQLiteDatabase db = SQLiteDatabase.openOrCreateDatabase(
+                context.getDatabasePath(DB_NAME), null);
+        try {
+            db.execSQL("CREATE TABLE transactions (" +
+                    "id INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                    "title TEXT, amount REAL NOT NULL, " +
+                    "category TEXT, isExpense INTEGER NOT NULL, " +
+                    "formattedDate TEXT, " +
+                    "is_goal_deposit INTEGER NOT NULL DEFAULT 0, " +
+                    "goal_id INTEGER NOT NULL DEFAULT -1)");
+            db.execSQL("CREATE TABLE budgets (" +
+                    "id INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                    "title TEXT, category TEXT, `limit` REAL NOT NULL, " +
+                    "current_spending REAL NOT NULL DEFAULT 0, " +
+                    "created_at INTEGER NOT NULL DEFAULT 0)");
+
+            String[] categories = {"Food", "Transport", "Income"};
+            SQLiteStatement insert = db.compileStatement("INSERT INTO transactions " +
+                    "(title, amount, category, isExpense, formattedDate) VALUES (?, ?, ?, ?, ?)");
+            db.beginTransaction();
+            try {
+                for (int i = 0; i < rows; i++) {
+                    String category = categories[i % categories.length];
+                    boolean expense = !"Income".equals(category);
+                    insert.bindString(1, "Row " + i);
+                    insert.bindDouble(2, expense ? -20 : 10);
+                    insert.bindString(3, category);
+                    insert.bindLong(4, expense ? 1 : 0);
+                    insert.bindString(5, "Jan 01, 2024");
+                    insert.executeInsert();
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+            db.setVersion(8);
+        } finally {
+            db.close();
+        }
+    }
+}
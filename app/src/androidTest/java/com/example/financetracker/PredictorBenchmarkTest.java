@@ -0,0 +1,100 @@
+package com.example.financetracker;
+
+import android.content.Context;
+import android.os.Debug;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * Measures single-row inference throughput on one thread and across a pool
+ * of interpreters, plus Java allocation per call on the preallocated-buffer
+ * path. The interpreter's own run() wrapper still allocates a little per
+ * call, so the bound is on bytes rather than zero.
+ */
+@RunWith(AndroidJUnit4.class)
+public class PredictorBenchmarkTest {
+    private static final String TAG = "PredictorBench";
+    private static final int WARMUP_CALLS = 200;
+    private static final int CALLS = 5_000;
+    private static final int THREADS = 4;
+    private static final long MAX_BYTES_PER_CALL = 1024;
+
+    private final Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+
+    @Test
+    public void singleThread_throughputAndAllocation() throws Exception {
+        SpendingPredictor predictor = new SpendingPredictor(context, 1, 1, true);
+        try {
+            for (int i = 0; i < WARMUP_CALLS; i++) {
+                predictor.predictNextMonthSpending(100f + i);
+            }
+
+            Debug.resetThreadAllocCount();
+            Debug.resetThreadAllocSize();
+            Debug.startAllocCounting();
+            long start = SystemClock.elapsedRealtimeNanos();
+            for (int i = 0; i < CALLS; i++) {
+                predictor.predictNextMonthSpending(100f + i);
+            }
+            long elapsed = SystemClock.elapsedRealtimeNanos() - start;
+            Debug.stopAllocCounting();
+
+            double objectsPerCall = Debug.getThreadAllocCount() / (double) CALLS;
+            double bytesPerCall = Debug.getThreadAllocSize() / (double) CALLS;
+            Log.i(TAG, String.format("1 thread: %.0f calls/s, %.1f objects and %.0f bytes per call",
+                    CALLS * 1e9 / elapsed, objectsPerCall, bytesPerCall));
+
+            assertTrue("Allocated " + bytesPerCall + " bytes per call",
+                    bytesPerCall < MAX_BYTES_PER_CALL);
+        } finally {
+            predictor.close();
+        }
+    }
+
+    @Test
+    public void pooledInterpreters_concurrentThroughput() throws Exception {
+        SpendingPredictor predictor = new SpendingPredictor(context, THREADS, 1, true);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int i = 0; i < WARMUP_CALLS; i++) {
+                predictor.predictNextMonthSpending(100f + i);
+            }
+
+            long start = SystemClock.elapsedRealtimeNanos();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < CALLS / THREADS; i++) {
+                        predictor.predictNextMonthSpending(100f + i);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            long elapsed = SystemClock.elapsedRealtimeNanos() - start;
+
+            Log.i(TAG, String.format("%d threads, %d interpreters: %.0f calls/s",
+                    THREADS, THREADS, CALLS * 1e9 / elapsed));
+            assertEquals(predictor.predictNextMonthSpending(150f),
+                    predictor.predictNextMonthSpending(150f), 0f);
+        } finally {
+            executor.shutdown();
+            predictor.close();
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package com.example.financetracker;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.room.Room;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs EXPLAIN QUERY PLAN over every DAO query so that a schema or query
+ * change that silently falls back to a full table scan or a temp sort fails
+ * here. The SQL is the DAO's own constants with named parameters bound
+ * positionally. Whole-table reads are asserted as such: repair passes,
+ * getAll, and the budgets and goals tables, which hold a handful of
+ * user-entered rows. Statements that read no table (changes(), DELETE
+ * without WHERE) have no plan to check.
+ */
+@RunWith(AndroidJUnit4.class)
+public class QueryPlanTest {
+    private AppDatabase db;
+    private SupportSQLiteDatabase sqlite;
+
+    @Before
+    public void createDb() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        db = Room.inMemoryDatabaseBuilder(context, AppDatabase.class).build();
+        sqlite = db.getOpenHelper().getWritableDatabase();
+    }
+
+    @After
+    public void closeDb() {
+        db.close();
+    }
+
+    // No WHERE clause, so the best plan is an ordered index walk cut off by LIMIT
+    @Test
+    public void getFirstPage_walksCreatedAtIndex() {
+        assertIndexScan(TransactionDao.FIRST_PAGE, "INDEX index_transactions_created_at", 50);
+    }
+
+    @Test
+    public void getPageAfter_seeksCreatedAtIndex() {
+        assertSearch(TransactionDao.PAGE_AFTER,
+                "INDEX index_transactions_created_at (created_at<?)", 0L, 0L, 0, 50);
+    }
+
+    @Test
+    public void getById_usesPrimaryKey() {
+        assertSearch(TransactionDao.BY_ID, "INTEGER PRIMARY KEY (rowid=?)", 1);
+    }
+
+    @Test
+    public void getTransactionsForGoal_usesGoalIndex() {
+        assertSearch(TransactionDao.FOR_GOAL, "INDEX index_transactions_goal_id (goal_id=?)", 1);
+    }
+
+    @Test
+    public void getCount_usesCoveringIndex() {
+        assertIndexScan(TransactionDao.COUNT, "COVERING INDEX");
+    }
+
+    @Test
+    public void streamRange_usesCreatedAtIndex() {
+        assertSearch(TransactionDao.STREAM_RANGE,
+                "INDEX index_transactions_created_at (created_at>? AND created_at<?)", 0L, 1L);
+    }
+
+    @Test
+    public void streamRangeForCategory_usesCategoryCreatedAtIndex() {
+        assertSearch(TransactionDao.STREAM_RANGE_FOR_CATEGORY,
+                "INDEX index_transactions_category_created_at (category=? AND created_at>? AND created_at<?)",
+                "Food", 0L, 1L);
+    }
+
+    @Test
+    public void getForDay_usesEpochDayIndex() {
+        assertSearch(TransactionDao.FOR_DAY, "INDEX index_transactions_epoch_day (epoch_day=?)", 19000);
+    }
+
+    @Test
+    public void getBetweenDays_usesEpochDayIndex() {
+        assertSearch(TransactionDao.BETWEEN_DAYS,
+                "INDEX index_transactions_epoch_day (epoch_day>? AND epoch_day<?)", 19000, 19030);
+    }
+
+    @Test
+    public void getBetweenDaysForCategory_usesCategoryDayIndex() {
+        assertSearch(TransactionDao.BETWEEN_DAYS_FOR_CATEGORY,
+                "INDEX index_transactions_category_epoch_day (category=? AND epoch_day>? AND epoch_day<?)",
+                "Food", 19000, 19030);
+    }
+
+    @Test
+    public void sumBetweenDays_usesEpochDayIndex() {
+        assertSearch(TransactionDao.SUM_BETWEEN_DAYS,
+                "INDEX index_transactions_epoch_day (epoch_day>? AND epoch_day<?)", 19000, 19030);
+    }
+
+    @Test
+    public void getAll_readsWholeLedger() {
+        assertFullScan(TransactionDao.ALL, "transactions", false);
+    }
+
+    @Test
+    public void budgetQueries_scanSmallTable() {
+        assertFullScan(BudgetDao.BY_CATEGORY, "budgets", false, "Food");
+        assertFullScan(BudgetDao.ALL, "budgets", false);
+        assertFullScan(BudgetDao.ADD_TO_SPENDING, "budgets", false,
+                1.0, 14, 1.0, 14, 19000, 19000, 19000, "Food");
+        assertFullScan(BudgetDao.DELETE_BY_CATEGORY, "budgets", false, "Food");
+        assertFullScan(BudgetDao.COUNT, "budgets", false);
+        assertFullScan(BudgetDao.EXISTS, "budgets", false, "Food");
+    }
+
+    @Test
+    public void getBudgetById_usesPrimaryKey() {
+        assertSearch(BudgetDao.BY_ID, "INTEGER PRIMARY KEY (rowid=?)", 1);
+    }
+
+    @Test
+    public void goalQueries() {
+        assertFullScan(SavingsGoalDao.ALL_BY_TARGET_DATE, "savings_goals", true);
+        assertSearch(SavingsGoalDao.BY_ID, "INTEGER PRIMARY KEY (rowid=?)", 1);
+        assertSearch(SavingsGoalDao.DELETE_BY_ID, "INTEGER PRIMARY KEY (rowid=?)", 1);
+    }
+
+    @Test
+    public void userQueries_useEmailIndex() {
+        assertSearch(UserDao.BY_EMAIL, "INDEX index_users_email (email=?)", "a@b.c");
+        assertSearch(UserDao.AUTHENTICATE, "INDEX index_users_email (email=?)", "a@b.c", "x");
+    }
+
+    @Test
+    public void monthlyTotals_seekByMonth() {
+        String primaryKey = "INDEX sqlite_autoindex_monthly_category_totals_1";
+        assertSearch(MonthlyCategoryTotalDao.BETWEEN_MONTHS,
+                primaryKey + " (month>? AND month<?)", 202401, 202412);
+        assertSearch(MonthlyCategoryTotalDao.EXPENSE_TOTAL_FOR_MONTH, primaryKey + " (month=?)", 202401);
+        // Sorting one month's rows is bounded by the category count
+        assertSearchThenSort(MonthlyCategoryTotalDao.FOR_MONTH, primaryKey + " (month=?)", 202401);
+        assertIndexScan(MonthlyCategoryTotalDao.RECENT_MONTHLY_EXPENSES, primaryKey, 12);
+    }
+
+    @Test
+    public void monthlyTotals_seekByCategory() {
+        assertSearch(MonthlyCategoryTotalDao.FOR_CATEGORY,
+                "INDEX index_monthly_category_totals_category_month (category=?)", "Food");
+        assertSearch(MonthlyCategoryTotalDao.RECENT_MONTHLY_EXPENSES_FOR_CATEGORY,
+                "INDEX index_monthly_category_totals_category_month (category=?)", "Food", 36);
+    }
+
+    // The all-time ranking folds the rollup, never the ledger
+    @Test
+    public void getTopExpenseCategories_readsRollupOnly() {
+        String plan = explain(MonthlyCategoryTotalDao.TOP_EXPENSE_CATEGORIES, 3);
+        assertTrue(plan, hasStep(plan, "SCAN", "monthly_category_totals"));
+        assertFalse(plan, plan.contains(" transactions"));
+    }
+
+    @Test
+    public void rollupRepairs_scanLedgerOnce() {
+        assertFullScan(AppDatabase.MONTHLY_TOTALS_FROM_LEDGER_SQL, "transactions", true);
+        assertFullScan(AccountSummaryDao.REBUILD, "transactions", false);
+    }
+
+    @Test
+    public void accountSummary_usesPrimaryKey() {
+        assertSearch(AccountSummaryDao.SUMMARY, "INTEGER PRIMARY KEY (rowid=?)");
+        assertSearch(AccountSummaryDao.BALANCE, "INTEGER PRIMARY KEY (rowid=?)");
+    }
+
+    @Test
+    public void recurringSeries_queries() {
+        assertSearch(RecurringSeriesDao.BY_KEY,
+                "INDEX sqlite_autoindex_recurring_series_1 (series_key=?)", "netflix|-24");
+        // Only detected series are sorted, a few dozen rows at most
+        String index = "INDEX index_recurring_series_period_next_epoch_day (period>?)";
+        assertSearchThenSort(RecurringSeriesDao.DETECTED, index);
+        assertSearchThenSort(RecurringSeriesDao.DUE_BETWEEN, index, 19000, 19030);
+    }
+
+    @Test
+    public void categoryStats_usesPrimaryKey() {
+        assertSearch(CategoryStatsDao.BY_CATEGORY,
+                "INDEX sqlite_autoindex_category_stats_1 (category=?)", "Food");
+    }
+
+    @Test
+    public void spendingFeatures_usePrimaryKey() {
+        assertSearch(SpendingFeatureDao.BY_KEY,
+                "INDEX sqlite_autoindex_spending_features_1 (feature_key=?)", "*");
+        assertIndexScan(SpendingFeatureDao.CATEGORY_FEATURES, "INDEX sqlite_autoindex_spending_features_1");
+    }
+
+    // Re-estimating a stale sketch reads SKETCH_ROWS expenses off the category index
+    @Test
+    public void categorySketch_readsNewestExpenses() {
+        assertSearch(AppDatabase.CATEGORY_SKETCH_SQL,
+                "INDEX index_transactions_category_created_at (category=?)", "Food");
+        assertSearchThenSort(AppDatabase.CATEGORY_SKETCH_UNCATEGORIZED_SQL,
+                "INDEX index_transactions_category_epoch_day (category=?)");
+    }
+
+    // Replays after a delete or edit read REPLAY_ROWS rows off an index, never the ledger
+    @Test
+    public void spendingFeatureReplay_readsNewestRows() {
+        assertIndexScan(AppDatabase.FEATURE_REPLAY_ALL_SQL, "INDEX index_transactions_created_at");
+        assertSearch(AppDatabase.FEATURE_REPLAY_CATEGORY_SQL,
+                "INDEX index_transactions_category_created_at (category=?)", "Food");
+        assertSearchThenSort(AppDatabase.FEATURE_REPLAY_UNCATEGORIZED_SQL,
+                "INDEX index_transactions_category_epoch_day (category=?)");
+        assertSearch(AppDatabase.FEATURE_LAST_DAY_ALL_SQL, "COVERING INDEX index_transactions_epoch_day");
+        assertSearch(AppDatabase.FEATURE_LAST_DAY_CATEGORY_SQL,
+                "COVERING INDEX index_transactions_category_epoch_day (category=?)", "Food");
+        assertSearch(AppDatabase.FEATURE_LAST_DAY_UNCATEGORIZED_SQL,
+                "COVERING INDEX index_transactions_category_epoch_day (category=?)");
+    }
+
+    // Series replays walk the ledger in date order off the index, never sorting it
+    @Test
+    public void recurrenceReplay_readsInDateOrder() {
+        assertIndexScan(AppDatabase.RECURRENCE_REPLAY_ALL_SQL, "INDEX index_transactions_epoch_day");
+        assertIndexScan(AppDatabase.RECURRENCE_REPLAY_RANGE_SQL, "INDEX index_transactions_epoch_day",
+                -16.5, -14.9);
+    }
+
+    // Every step must be an index SEARCH: no table scan and no temp sort
+    private void assertSearch(String sql, String expected, Object... args) {
+        String plan = explain(sql, args);
+        assertTrue("Expected SEARCH using " + expected + " but was:\n" + plan,
+                hasStep(plan, "SEARCH", expected));
+        assertFalse("Unexpected SCAN in:\n" + plan, scansTable(plan));
+        assertFalse("Unexpected sort in:\n" + plan, plan.contains("USE TEMP B-TREE"));
+    }
+
+    private void assertSearchThenSort(String sql, String expected, Object... args) {
+        String plan = explain(sql, args);
+        assertTrue("Expected SEARCH using " + expected + " but was:\n" + plan,
+                hasStep(plan, "SEARCH", expected));
+        assertFalse("Unexpected SCAN in:\n" + plan, scansTable(plan));
+    }
+
+    private void assertFullScan(String sql, String table, boolean sorts, Object... args) {
+        String plan = explain(sql, args);
+        assertTrue("Expected SCAN of " + table + " but was:\n" + plan, hasStep(plan, "SCAN", table));
+        if (!sorts) {
+            assertFalse("Unexpected sort in:\n" + plan, plan.contains("USE TEMP B-TREE"));
+        }
+    }
+
+    private void assertIndexScan(String sql, String expected, Object... args) {
+        String plan = explain(sql, args);
+        assertTrue("Expected SCAN using " + expected + " but was:\n" + plan,
+                hasStep(plan, "SCAN", expected));
+        assertFalse("Unexpected sort in:\n" + plan, plan.contains("USE TEMP B-TREE"));
+    }
+
+    // Newer SQLite reports a subquery's outer SELECT as SCAN CONSTANT ROW
+    private static boolean scansTable(String plan) {
+        for (String line : plan.split("\n")) {
+            if (line.startsWith("SCAN ") && !line.startsWith("SCAN CONSTANT ROW")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Older SQLite prints "SEARCH TABLE transactions", newer "SEARCH transactions"
+    private static boolean hasStep(String plan, String op, String using) {
+        for (String line : plan.split("\n")) {
+            if (line.startsWith(op + " ") && line.contains(" " + using)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String explain(String sql, Object... args) {
+        StringBuilder plan = new StringBuilder();
+        String bound = sql.replaceAll(":\\w+", "?");
+        try (Cursor cursor = sqlite.query("EXPLAIN QUERY PLAN " + bound, args)) {
+            int detail = cursor.getColumnIndexOrThrow("detail");
+            while (cursor.moveToNext()) {
+                plan.append(cursor.getString(detail)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.financetracker;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Hashes and folds a 1M-row history the way rebuildRecurringSeries does and
+ * logs the time taken. Only the detected periods are asserted; device
+ * timings are not stable enough for a pass/fail bound.
+ */
+@RunWith(AndroidJUnit4.class)
+public class RecurrenceBenchmarkTest {
+    private static final String TAG = "RecurrenceBenchmark";
+    private static final int ROWS = 1_000_000;
+    private static final int SERIES = 10_000;
+
+    @Test
+    public void millionRows() {
+        String[] titles = new String[SERIES];
+        double[] amounts = new double[SERIES];
+        Random random = new Random(42);
+        for (int i = 0; i < SERIES; i++) {
+            titles[i] = "Merchant " + i + " *Card payment";
+            amounts[i] = -(5 + random.nextInt(500));
+        }
+
+        Map<String, RecurringSeries> series = new HashMap<>();
+        long start = SystemClock.elapsedRealtime();
+        for (int i = 0; i < ROWS; i++) {
+            int s = i % SERIES;
+            int day = 19723 + (i / SERIES) * 30 + random.nextInt(5) - 2;
+            String key = RecurrenceDetector.keyFor(titles[s], amounts[s]);
+            RecurringSeries current = series.get(key);
+            if (current == null) {
+                current = new RecurringSeries();
+                current.seriesKey = key;
+                series.put(key, current);
+            }
+            RecurrenceDetector.update(current, amounts[s], day);
+        }
+        long elapsed = SystemClock.elapsedRealtime() - start;
+        Log.i(TAG, "Folded " + ROWS + " rows into " + series.size() + " series in " + elapsed + " ms");
+
+        assertEquals(SERIES, series.size());
+        for (RecurringSeries s : series.values()) {
+            assertEquals(RecurringSeries.MONTHLY, s.period);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.financetracker;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Deletes and edits recompute the series they touch: the result must match
+ * a full rebuild, and a series with no rows left must disappear.
+ */
+@RunWith(AndroidJUnit4.class)
+public class RecurringSeriesTest {
+    private static final String DB_NAME = "recurring-series-test.db";
+    private static final String RENT = "rent|-71";
+    private static final String NETFLIX = "netflix|-25";
+
+    private Context context;
+    private AppDatabase db;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DB_NAME);
+        db = AppDatabase.build(context, DB_NAME);
+
+        List<Transaction> rows = new ArrayList<>();
+        for (int month = 0; month < 6; month++) {
+            rows.add(transaction("Rent", -900, 19723 + month * 30));
+            rows.add(transaction("NETFLIX", -10.99, 19725 + month * 30));
+        }
+        rows.add(transaction("Coffee", -3.5, 19730));
+        db.transactionDao().insertAll(rows);
+        db.rebuildRecurringSeries();
+        assertEquals(RENT, RecurrenceDetector.keyFor("Rent", -900));
+        assertEquals(NETFLIX, RecurrenceDetector.keyFor("NETFLIX", -10.99));
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+        context.deleteDatabase(DB_NAME);
+    }
+
+    @Test
+    public void deletingEveryRow_dropsSeries() {
+        List<Transaction> netflix = rowsTitled("NETFLIX");
+        db.runInTransaction(() -> {
+            db.transactionDao().delete(netflix);
+            db.recomputeRecurringSeries(netflix);
+        });
+
+        assertNull(db.recurringSeriesDao().get(NETFLIX));
+        assertEquals(RecurringSeries.MONTHLY, db.recurringSeriesDao().get(RENT).period);
+    }
+
+    @Test
+    public void deletingNewestRow_matchesRebuild() {
+        List<Transaction> rent = rowsTitled("Rent");
+        List<Transaction> newest = Collections.singletonList(rent.get(rent.size() - 1));
+        db.runInTransaction(() -> {
+            db.transactionDao().delete(newest);
+            db.recomputeRecurringSeries(newest);
+        });
+        RecurringSeries recomputed = db.recurringSeriesDao().get(RENT);
+
+        db.rebuildRecurringSeries();
+        assertSameSeries(db.recurringSeriesDao().get(RENT), recomputed);
+        assertEquals(5, recomputed.occurrences);
+    }
+
+    @Test
+    public void editingIntoAnotherSeries_movesRow() {
+        Transaction coffee = rowsTitled("Coffee").get(0);
+        Transaction edited = rowsTitled("Coffee").get(0);
+        edited.title = "Netflix";
+        edited.amount = -10.99;
+        db.runInTransaction(() -> {
+            db.transactionDao().update(edited);
+            db.recomputeRecurringSeries(Arrays.asList(coffee, edited));
+        });
+
+        assertNull(db.recurringSeriesDao().get(RecurrenceDetector.keyFor("Coffee", -3.5)));
+        RecurringSeries recomputed = db.recurringSeriesDao().get(NETFLIX);
+        assertEquals(7, recomputed.occurrences);
+
+        db.rebuildRecurringSeries();
+        assertSameSeries(db.recurringSeriesDao().get(NETFLIX), recomputed);
+    }
+
+    private List<Transaction> rowsTitled(String title) {
+        List<Transaction> rows = new ArrayList<>();
+        for (Transaction t : db.transactionDao().getAll()) {
+            if (title.equals(t.title)) {
+                rows.add(t);
+            }
+        }
+        rows.sort((a, b) -> Integer.compare(a.epochDay, b.epochDay));
+        return rows;
+    }
+
+    private static void assertSameSeries(RecurringSeries expected, RecurringSeries actual) {
+        assertEquals(expected.occurrences, actual.occurrences);
+        assertEquals(expected.typicalAmount, actual.typicalAmount, 1e-9);
+        assertEquals(expected.lastEpochDay, actual.lastEpochDay);
+        assertEquals(expected.intervalCount, actual.intervalCount);
+        assertEquals(expected.intervalMean, actual.intervalMean, 1e-9);
+        assertEquals(expected.intervalM2, actual.intervalM2, 1e-9);
+        assertEquals(expected.period, actual.period);
+        assertEquals(expected.nextEpochDay, actual.nextEpochDay);
+    }
+
+    private static Transaction transaction(String title, double amount, int epochDay) {
+        Transaction t = new Transaction();
+        t.title = title;
+        t.category = "Bills";
+        t.amount = amount;
+        t.isExpense = amount < 0;
+        t.epochDay = epochDay;
+        t.createdAt = EpochDays.toUtcMillis(epochDay);
+        return t;
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.financetracker;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that spending_features stays equal to a full replay of the ledger
+ * (rebuildSummaries) through inserts, deletes, edits and out-of-order
+ * inserts, including when the bounded replay skips older rows.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SpendingFeatureTest {
+    private static final String DB_NAME = "features-test.db";
+    private static final String[] KEYS = {SpendingFeature.ALL_CATEGORIES, "Food", "Transport", ""};
+
+    private Context context;
+    private AppDatabase db;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DB_NAME);
+        db = AppDatabase.build(context, DB_NAME);
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+        context.deleteDatabase(DB_NAME);
+    }
+
+    @Test
+    public void insertsMatchReplay() {
+        insertRows(40);
+        assertMatchesRebuild();
+    }
+
+    @Test
+    public void deleteMarksStaleAndReplays() {
+        insertRows(40);
+        List<Transaction> rows = db.transactionDao().getFirstPage(40);
+        db.transactionDao().delete(rows.subList(0, 10));
+
+        SpendingFeature stored = db.spendingFeatureDao().getFeature(SpendingFeature.ALL_CATEGORIES);
+        assertTrue(stored.stale);
+        assertEquals(30, stored.sampleCount);
+        assertFalse(db.getSpendingFeature(SpendingFeature.ALL_CATEGORIES).stale);
+        assertMatchesRebuild();
+    }
+
+    @Test
+    public void replayOfLongHistoryMatchesFullRebuild() {
+        insertRows(SpendingFeature.REPLAY_ROWS * 5);
+        List<Transaction> rows = db.transactionDao().getFirstPage(SpendingFeature.REPLAY_ROWS);
+        db.transactionDao().delete(rows.subList(0, 7));
+
+        assertMatchesRebuild();
+    }
+
+    @Test
+    public void olderInsertMarksStaleAndReplaysInDateOrder() {
+        insertRows(20);
+        db.transactionDao().insert(transaction("Food", -250, -5));
+
+        assertTrue(db.spendingFeatureDao().getFeature(SpendingFeature.ALL_CATEGORIES).stale);
+        assertTrue(db.spendingFeatureDao().getFeature("Food").stale);
+        assertFalse(db.spendingFeatureDao().getFeature("Transport").stale);
+        assertMatchesRebuild();
+    }
+
+    @Test
+    public void editMovesBetweenCategories() {
+        insertRows(40);
+        Transaction t = db.transactionDao().getFirstPage(1).get(0);
+        t.category = "Transport".equals(t.category) ? "Food" : "Transport";
+        t.amount = -999;
+        db.transactionDao().update(t);
+
+        assertMatchesRebuild();
+    }
+
+    @Test
+    public void insertAfterDeleteIsIncludedInReplay() {
+        insertRows(20);
+        db.transactionDao().delete(db.transactionDao().getFirstPage(5));
+        insertRows(5);
+
+        SpendingFeature stored = db.spendingFeatureDao().getFeature(SpendingFeature.ALL_CATEGORIES);
+        assertTrue(stored.stale);
+        assertEquals(20, stored.sampleCount);
+        assertMatchesRebuild();
+    }
+
+    @Test
+    public void deletingLastRowOfCategoryRemovesFeature() {
+        Transaction only = transaction("Gifts", -25, 0);
+        only.id = (int) db.transactionDao().insert(only);
+        db.transactionDao().delete(only);
+
+        assertNull(db.getSpendingFeature("Gifts"));
+    }
+
+    private void assertMatchesRebuild() {
+        List<SpendingFeature> incremental = new ArrayList<>();
+        for (String key : KEYS) {
+            incremental.add(db.getSpendingFeature(key));
+        }
+
+        db.rebuildSummaries();
+
+        for (int i = 0; i < KEYS.length; i++) {
+            SpendingFeature expected = db.spendingFeatureDao().getFeature(KEYS[i]);
+            SpendingFeature actual = incremental.get(i);
+            if (expected == null) {
+                assertNull(KEYS[i], actual);
+                continue;
+            }
+            assertNotNull(KEYS[i], actual);
+            assertEquals(KEYS[i], expected.sampleCount, actual.sampleCount);
+            assertEquals(KEYS[i], expected.ewmaAmount, actual.ewmaAmount, 1e-9);
+            assertEquals(KEYS[i], expected.lastEpochDay, actual.lastEpochDay);
+            assertEquals(KEYS[i], expected.lastCreatedAt, actual.lastCreatedAt);
+        }
+    }
+
+    private int nextDay = 0;
+
+    // Inserted in created_at order, which is the order the replay uses
+    private void insertRows(int count) {
+        String[] categories = {"Food", "Transport", null};
+        for (int i = 0; i < count; i++) {
+            int day = nextDay++;
+            db.transactionDao().insert(transaction(categories[day % categories.length],
+                    -(day % 17 + 1) * 4.5, day));
+        }
+    }
+
+    private static Transaction transaction(String category, double amount, int day) {
+        Transaction t = new Transaction();
+        t.title = "Row " + day;
+        t.category = category;
+        t.amount = amount;
+        t.isExpense = amount < 0;
+        t.epochDay = 19723 + day;
+        t.createdAt = EpochDays.toUtcMillis(t.epochDay);
+        return t;
+    }
+}
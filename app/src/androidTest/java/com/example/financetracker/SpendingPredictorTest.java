@@ -0,0 +1,55 @@
+package com.example.financetracker;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the bundled model through a single-slot pool so that batch and
+ * single-row calls share one interpreter and its buffers.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SpendingPredictorTest {
+    private SpendingPredictor predictor;
+
+    @Before
+    public void setUp() throws Exception {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        predictor = new SpendingPredictor(context, 1, 1, false);
+    }
+
+    @After
+    public void tearDown() {
+        predictor.close();
+    }
+
+    @Test
+    public void singlePredictAfterBatchOnSameSlot() {
+        float expected = predictor.predictNextMonthSpending(150f);
+
+        float[] batch = predictor.predictBatch(new float[][]{{100f}, {150f}, {200f}, {250f}, {300f}});
+        assertEquals(5, batch.length);
+        assertEquals(expected, batch[1], 1e-3f);
+
+        assertEquals(expected, predictor.predictNextMonthSpending(150f), 1e-3f);
+    }
+
+    @Test
+    public void batchesOfDifferentSizesOnSameSlot() {
+        float[] five = predictor.predictBatch(new float[][]{{10f}, {20f}, {30f}, {40f}, {50f}});
+        float[] two = predictor.predictBatch(new float[][]{{10f}, {20f}});
+        float[] seven = predictor.predictBatch(new float[][]{{10f}, {20f}, {30f}, {40f}, {50f}, {60f}, {70f}});
+
+        assertEquals(five[0], two[0], 1e-3f);
+        assertEquals(five[1], two[1], 1e-3f);
+        assertEquals(five[4], seven[4], 1e-3f);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.financetracker;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+@Entity(tableName = "account_summary")
+public class AccountSummary {
+    public static final int SINGLETON_ID = 1;
+
+    @PrimaryKey
+    public int id = SINGLETON_ID;
+
+    public double balance = 0;
+
+    @ColumnInfo(name = "total_income")
+    public double totalIncome = 0;
+
+    @ColumnInfo(name = "total_expense")
+    public double totalExpense = 0;
+
+    @ColumnInfo(name = "transaction_count")
+    public int transactionCount = 0;
+}
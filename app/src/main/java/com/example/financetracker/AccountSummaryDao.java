@@ -0,0 +1,31 @@
+package com.example.financetracker;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Query;
+
+@Dao
+public interface AccountSummaryDao {
+    String SUMMARY = "SELECT * FROM account_summary WHERE id = 1";
+    String BALANCE = "SELECT IFNULL((SELECT balance FROM account_summary WHERE id = 1), 0)";
+    String REBUILD = "INSERT OR REPLACE INTO account_summary " +
+            "(id, balance, total_income, total_expense, transaction_count) " +
+            "SELECT 1, IFNULL(SUM(amount), 0), " +
+            "IFNULL(SUM(CASE WHEN amount >= 0 THEN amount ELSE 0 END), 0), " +
+            "IFNULL(SUM(CASE WHEN amount < 0 THEN -amount ELSE 0 END), 0), " +
+            "COUNT(*) FROM transactions";
+
+    // The row is kept current by the triggers installed in AppDatabase
+    @Query(SUMMARY)
+    AccountSummary getSummary();
+
+    @Query(BALANCE)
+    double getBalance();
+
+    @Query(BALANCE)
+    LiveData<Double> observeBalance();
+
+    // Repair path: recompute the summary from the ledger in one aggregate pass
+    @Query(REBUILD)
+    void rebuild();
+}
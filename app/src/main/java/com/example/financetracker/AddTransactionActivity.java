@@ -24,6 +24,8 @@ import com.google.android.material.textfield.MaterialAutoCompleteTextView;
 import com.google.android.material.textfield.TextInputLayout;
 
 import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
@@ -262,9 +264,11 @@ public class AddTransactionActivity extends AppCompatActivity {
             Transaction transaction = createTransactionFromInputs();
             if (isEditMode) {
                 transaction.id = transactionId;
-                new UpdateTransactionTask(transaction).execute();
+                new UpdateTransactionTask(transaction)
+                        .executeOnExecutor(AppExecutors.getWriteExecutor());
             } else {
-                new SaveTransactionTask(transaction).execute();
+                new SaveTransactionTask(transaction)
+                        .executeOnExecutor(AppExecutors.getWriteExecutor());
             }
         } catch (NumberFormatException e) {
             etAmount.setError("Invalid amount");
@@ -310,7 +314,8 @@ public class AddTransactionActivity extends AppCompatActivity {
         transaction.category = category;
         transaction.isExpense = isExpense;
         transaction.formattedDate = new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault())
-                .format(new Date());
+                .format(new Date(transaction.createdAt));
+        transaction.epochDay = EpochDays.fromMillis(transaction.createdAt);
 
         if (!isExpense && goalAllocationSection.getVisibility() == View.VISIBLE) {
             setupGoalAllocation(transaction);
@@ -366,14 +371,21 @@ public class AddTransactionActivity extends AppCompatActivity {
         protected Boolean doInBackground(Void... voids) {
             try {
                 db.runInTransaction(() -> {
+                    if (transaction.isExpense) {
+                        scoreExpense(transaction);
+                    }
+
                     long transactionId = db.transactionDao().insert(transaction);
+                    trackRecurrence(transaction);
 
                     if (transaction.isExpense) {
-                        db.budgetDao().addToSpending(transaction.category, Math.abs(transaction.amount));
+                        db.budgetDao().addToSpending(transaction.category, Math.abs(transaction.amount),
+                                transaction.epochDay);
                     } else if (transaction.isGoalDeposit) {
                         updateGoalAllocation(transaction);
                     }
                 });
+                InsightCache.ledgerChanged();
                 return true;
             } catch (Exception e) {
                 this.exception = e;
@@ -382,6 +394,26 @@ public class AddTransactionActivity extends AppCompatActivity {
             }
         }
 
+        private void scoreExpense(Transaction transaction) {
+            CategoryStats stats = db.getCategoryStats(transaction.category);
+            if (stats == null) {
+                stats = new CategoryStats();
+                stats.category = transaction.category;
+            }
+            transaction.isAnomaly = AnomalyDetector.scoreAndUpdate(stats, transaction.amount);
+            db.categoryStatsDao().upsert(stats);
+        }
+
+        private void trackRecurrence(Transaction transaction) {
+            String key = RecurrenceDetector.keyFor(transaction.title, transaction.amount);
+            RecurringSeries series = db.recurringSeriesDao().get(key);
+            if (series == null) {
+                series = RecurrenceDetector.newSeries(key, transaction);
+            }
+            RecurrenceDetector.update(series, transaction.amount, transaction.epochDay);
+            db.recurringSeriesDao().upsert(series);
+        }
+
         private void updateGoalAllocation(Transaction transaction) {
             SavingsGoal goal = db.savingsGoalDao().getGoalById(transaction.goalId);
             if (goal != null) {
@@ -394,8 +426,10 @@ public class AddTransactionActivity extends AppCompatActivity {
         protected void onPostExecute(Boolean success) {
             if (success) {
                 Toast.makeText(AddTransactionActivity.this,
-                        "Transaction saved successfully",
-                        Toast.LENGTH_SHORT).show();
+                        transaction.isAnomaly
+                                ? "Transaction saved. This is unusually high for " + transaction.category
+                                : "Transaction saved successfully",
+                        transaction.isAnomaly ? Toast.LENGTH_LONG : Toast.LENGTH_SHORT).show();
                 setResult(RESULT_OK);
                 finish();
             } else {
@@ -419,12 +453,17 @@ public class AddTransactionActivity extends AppCompatActivity {
         protected Boolean doInBackground(Void... voids) {
             try {
                 db.runInTransaction(() -> {
+                    Transaction previous = db.transactionDao().getById(transaction.id);
                     db.transactionDao().update(transaction);
+                    db.recomputeRecurringSeries(previous == null
+                            ? Collections.singletonList(transaction)
+                            : Arrays.asList(previous, transaction));
 
                     if (transaction.isGoalDeposit) {
                         updateGoalAllocation(transaction);
                     }
                 });
+                InsightCache.ledgerChanged();
                 return true;
             } catch (Exception e) {
                 this.exception = e;
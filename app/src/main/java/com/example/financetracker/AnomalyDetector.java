@@ -0,0 +1,90 @@
+package com.example.financetracker;
+
+import java.util.Arrays;
+
+/**
+ * Scores an expense against its category's running statistics and folds it
+ * in, in O(1). An expense is unusual when both the classic z-score (Welford
+ * mean/variance) and the robust score (streaming median/MAD) are high, which
+ * keeps one earlier outlier from masking or inflating later ones.
+ */
+public final class AnomalyDetector {
+    static final int MIN_SAMPLES = 10;
+    static final double Z_THRESHOLD = 3.0;
+    static final double ROBUST_THRESHOLD = 3.5;
+    private static final double MAD_TO_SIGMA = 1.4826;
+    private static final double SKETCH_RATE = 0.1;
+    // Newest expenses a stale sketch is re-estimated from
+    static final int SKETCH_ROWS = 256;
+
+    private AnomalyDetector() {
+    }
+
+    // Returns whether the expense is unusual for the category, then updates the stats
+    public static boolean scoreAndUpdate(CategoryStats stats, double expense) {
+        double x = Math.abs(expense);
+        boolean anomalous = isAnomalous(stats, x);
+        update(stats, x);
+        return anomalous;
+    }
+
+    static boolean isAnomalous(CategoryStats stats, double x) {
+        if (stats.sampleCount < MIN_SAMPLES) {
+            return false;
+        }
+
+        double variance = stats.m2 / (stats.sampleCount - 1);
+        double z = variance > 0 ? (x - stats.mean) / Math.sqrt(variance) : 0;
+        double robustSigma = stats.mad * MAD_TO_SIGMA;
+        double robustZ = robustSigma > 0 ? (x - stats.median) / robustSigma : 0;
+
+        return z > Z_THRESHOLD && robustZ > ROBUST_THRESHOLD;
+    }
+
+    // Replaces the sketch with the exact median and MAD of the given amounts
+    static void reestimateSketch(CategoryStats stats, double[] amounts, int count) {
+        stats.stale = false;
+        if (count == 0) {
+            stats.median = 0;
+            stats.mad = 0;
+            return;
+        }
+
+        double[] values = Arrays.copyOf(amounts, count);
+        for (int i = 0; i < count; i++) {
+            values[i] = Math.abs(values[i]);
+        }
+        Arrays.sort(values);
+        stats.median = median(values);
+        for (int i = 0; i < count; i++) {
+            values[i] = Math.abs(values[i] - stats.median);
+        }
+        Arrays.sort(values);
+        stats.mad = median(values);
+    }
+
+    private static double median(double[] sorted) {
+        int mid = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[mid] : (sorted[mid - 1] + sorted[mid]) / 2;
+    }
+
+    static void update(CategoryStats stats, double x) {
+        stats.sampleCount++;
+        double delta = x - stats.mean;
+        stats.mean += delta / stats.sampleCount;
+        stats.m2 += delta * (x - stats.mean);
+
+        if (stats.sampleCount == 1) {
+            stats.median = x;
+            stats.mad = 0;
+            return;
+        }
+
+        // Move the estimates a step toward the sample, scaled to the current
+        // spread so the sketch adapts to the category's amounts
+        double step = SKETCH_RATE * Math.max(stats.mad, Math.max(0.1 * stats.median, 0.01));
+        stats.median += Math.signum(x - stats.median) * step;
+        double deviation = Math.abs(x - stats.median);
+        stats.mad = Math.max(0, stats.mad + Math.signum(deviation - stats.mad) * step);
+    }
+}
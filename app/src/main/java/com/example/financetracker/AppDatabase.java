@@ -1,6 +1,7 @@
 package com.example.financetracker;
 
 import android.content.Context;
+import android.database.Cursor;
 
 import androidx.annotation.NonNull;
 import androidx.room.Database;
@@ -8,24 +9,99 @@ import androidx.room.Room;
 import androidx.room.RoomDatabase;
 import androidx.room.migration.Migration;
 import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteStatement;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Database(
         entities = {
                 Transaction.class,
                 Budget.class,
                 SavingsGoal.class,
-                User.class
+                User.class,
+                AccountSummary.class,
+                MonthlyCategoryTotal.class,
+                SpendingFeature.class,
+                CategoryStats.class,
+                RecurringSeries.class
         },
-        version = 9,
-        exportSchema = false
+        version = 24,
+        exportSchema = true
 )
 public abstract class AppDatabase extends RoomDatabase {
     private static volatile AppDatabase INSTANCE;
 
+    private static final String DATABASE_NAME = "finance_database.db";
+    private static final int READ_THREADS = 4;
+
+    // With WAL, readers run on their own connections while a single writer
+    // commits, so reads get a small pool and writes are serialized on one thread.
+    // Both belong to Room; app code runs on AppExecutors.
+    private static final ExecutorService QUERY_EXECUTOR = Executors.newFixedThreadPool(READ_THREADS);
+    private static final ExecutorService TRANSACTION_EXECUTOR = Executors.newSingleThreadExecutor();
+
     public abstract TransactionDao transactionDao();
     public abstract BudgetDao budgetDao();
     public abstract SavingsGoalDao savingsGoalDao();
     public abstract UserDao userDao();
+    public abstract AccountSummaryDao accountSummaryDao();
+    public abstract MonthlyCategoryTotalDao monthlyCategoryTotalDao();
+    public abstract SpendingFeatureDao spendingFeatureDao();
+    public abstract CategoryStatsDao categoryStatsDao();
+    public abstract RecurringSeriesDao recurringSeriesDao();
+
+    private static final String MONTH_OF_NEW =
+            "CAST(strftime('%Y%m', NEW.epoch_day * 86400, 'unixepoch') AS INTEGER)";
+    private static final String MONTH_OF_OLD =
+            "CAST(strftime('%Y%m', OLD.epoch_day * 86400, 'unixepoch') AS INTEGER)";
+
+    // Spending feature replay reads, see replaySpendingFeature. Rows with no
+    // category only come from legacy data, so that key may sort its rows.
+    private static final String NEWEST_FIRST =
+            " ORDER BY created_at DESC, id DESC LIMIT " + SpendingFeature.REPLAY_ROWS;
+    private static final String NEWEST_FIRST_SKETCH =
+            " ORDER BY created_at DESC, id DESC LIMIT " + AnomalyDetector.SKETCH_ROWS;
+    static final String FEATURE_REPLAY_ALL_SQL =
+            "SELECT amount, created_at FROM transactions" + NEWEST_FIRST;
+    static final String FEATURE_REPLAY_CATEGORY_SQL =
+            "SELECT amount, created_at FROM transactions WHERE category = ?" + NEWEST_FIRST;
+    static final String FEATURE_REPLAY_UNCATEGORIZED_SQL =
+            "SELECT amount, created_at FROM transactions " +
+                    "WHERE category IS NULL OR category = ''" + NEWEST_FIRST;
+    static final String FEATURE_LAST_DAY_ALL_SQL = "SELECT MAX(epoch_day) FROM transactions";
+    static final String FEATURE_LAST_DAY_CATEGORY_SQL =
+            "SELECT MAX(epoch_day) FROM transactions WHERE category = ?";
+    static final String FEATURE_LAST_DAY_UNCATEGORIZED_SQL =
+            "SELECT MAX(epoch_day) FROM transactions WHERE category IS NULL OR category = ''";
+
+    // Newest expenses for re-estimating a stale category sketch
+    static final String CATEGORY_SKETCH_SQL =
+            "SELECT amount FROM transactions WHERE category = ? AND is_expense = 1" + NEWEST_FIRST_SKETCH;
+    static final String CATEGORY_SKETCH_UNCATEGORIZED_SQL =
+            "SELECT amount FROM transactions WHERE (category IS NULL OR category = '') " +
+                    "AND is_expense = 1" + NEWEST_FIRST_SKETCH;
+
+    // Date-ordered rows for replaying recurring series, see rebuildRecurringSeries
+    static final String RECURRENCE_REPLAY_ALL_SQL =
+            "SELECT title, category, amount, epoch_day FROM transactions ORDER BY epoch_day, id";
+    static final String RECURRENCE_REPLAY_RANGE_SQL =
+            "SELECT title, category, amount, epoch_day FROM transactions " +
+                    "WHERE amount BETWEEN ? AND ? ORDER BY epoch_day, id";
+
+    static final String MONTHLY_TOTALS_FROM_LEDGER_SQL =
+            "INSERT INTO monthly_category_totals " +
+                    "(month, category, expense_total, income_total, transaction_count) " +
+                    "SELECT CAST(strftime('%Y%m', epoch_day * 86400, 'unixepoch') AS INTEGER), " +
+                    "IFNULL(category, ''), " +
+                    "SUM(CASE WHEN amount < 0 THEN -amount ELSE 0 END), " +
+                    "SUM(CASE WHEN amount >= 0 THEN amount ELSE 0 END), " +
+                    "COUNT(*) FROM transactions GROUP BY 1, 2";
 
 
     static final Migration MIGRATION_1_2 = new Migration(1, 2) {
@@ -91,6 +167,9 @@ public abstract class AppDatabase extends RoomDatabase {
     static final Migration MIGRATION_8_9 = new Migration(8, 9) {
         @Override
         public void migrate(@NonNull SupportSQLiteDatabase db) {
+            // Every pre-9 install funnels through here, so this is where the
+            // legacy column layouts are rewritten in place
+            reconcileLegacyTables(db);
 
             db.execSQL("DROP TABLE IF EXISTS users");
             db.execSQL("CREATE TABLE users (" +
@@ -103,75 +182,823 @@ public abstract class AppDatabase extends RoomDatabase {
         }
     };
 
+    static final Migration MIGRATION_9_10 = new Migration(9, 10) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `account_summary` (" +
+                    "`id` INTEGER NOT NULL, " +
+                    "`balance` REAL NOT NULL, " +
+                    "`total_income` REAL NOT NULL, " +
+                    "`total_expense` REAL NOT NULL, " +
+                    "`transaction_count` INTEGER NOT NULL, " +
+                    "PRIMARY KEY(`id`))");
+            seedAccountSummary(db);
+            createAccountSummaryTriggers(db);
+        }
+    };
+
+    static final Migration MIGRATION_10_11 = new Migration(10, 11) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            createTransactionIndexes(db);
+        }
+    };
+
+    static final Migration MIGRATION_11_12 = new Migration(11, 12) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE `transactions` ADD COLUMN `epoch_day` INTEGER NOT NULL DEFAULT 0");
+            // created_at is the only reliable timestamp; formatted_date is a
+            // locale-dependent display string
+            db.execSQL("UPDATE `transactions` SET `epoch_day` = CAST(" +
+                    "julianday(date(`created_at` / 1000, 'unixepoch', 'localtime')) - 2440587.5 " +
+                    "AS INTEGER)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_transactions_epoch_day` " +
+                    "ON `transactions` (`epoch_day`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_transactions_category_epoch_day` " +
+                    "ON `transactions` (`category`, `epoch_day`)");
+        }
+    };
+
+    static final Migration MIGRATION_12_13 = new Migration(12, 13) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `monthly_category_totals` (" +
+                    "`month` INTEGER NOT NULL, " +
+                    "`category` TEXT NOT NULL, " +
+                    "`expense_total` REAL NOT NULL, " +
+                    "`income_total` REAL NOT NULL, " +
+                    "`transaction_count` INTEGER NOT NULL, " +
+                    "PRIMARY KEY(`month`, `category`))");
+            db.execSQL(MONTHLY_TOTALS_FROM_LEDGER_SQL);
+            createMonthlyTotalsTriggers(db);
+        }
+    };
+
+    static final Migration MIGRATION_13_14 = new Migration(13, 14) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `spending_features` (" +
+                    "`feature_key` TEXT NOT NULL, " +
+                    "`ewma_amount` REAL NOT NULL, " +
+                    "`sample_count` INTEGER NOT NULL, " +
+                    "`last_epoch_day` INTEGER NOT NULL, " +
+                    "PRIMARY KEY(`feature_key`))");
+            // Filled, and given its triggers, by MIGRATION_21_22 once the
+            // table has its final columns
+        }
+    };
+
+    static final Migration MIGRATION_14_15 = new Migration(14, 15) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE `transactions` ADD COLUMN `is_anomaly` INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("CREATE TABLE IF NOT EXISTS `category_stats` (" +
+                    "`category` TEXT NOT NULL, " +
+                    "`sample_count` INTEGER NOT NULL, " +
+                    "`mean` REAL NOT NULL, " +
+                    "`m2` REAL NOT NULL, " +
+                    "`median` REAL NOT NULL, " +
+                    "`mad` REAL NOT NULL, " +
+                    "PRIMARY KEY(`category`))");
+            rebuildCategoryStats(db);
+        }
+    };
+
+    static final Migration MIGRATION_15_16 = new Migration(15, 16) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `recurring_series` (" +
+                    "`series_key` TEXT NOT NULL, " +
+                    "`title` TEXT, " +
+                    "`category` TEXT, " +
+                    "`typical_amount` REAL NOT NULL, " +
+                    "`occurrences` INTEGER NOT NULL, " +
+                    "`last_epoch_day` INTEGER NOT NULL, " +
+                    "`interval_count` INTEGER NOT NULL, " +
+                    "`interval_mean` REAL NOT NULL, " +
+                    "`interval_m2` REAL NOT NULL, " +
+                    "`period` TEXT, " +
+                    "`next_epoch_day` INTEGER NOT NULL, " +
+                    "PRIMARY KEY(`series_key`))");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_recurring_series_period_next_epoch_day` " +
+                    "ON `recurring_series` (`period`, `next_epoch_day`)");
+            rebuildRecurringSeries(db);
+        }
+    };
+
+    static final Migration MIGRATION_16_17 = new Migration(16, 17) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE `budgets` ADD COLUMN `spend_rate` REAL NOT NULL DEFAULT 0");
+            db.execSQL("ALTER TABLE `budgets` ADD COLUMN `last_spend_day` INTEGER NOT NULL DEFAULT 0");
+            // Seed the rate with the average since creation so forecasts show straight away
+            db.execSQL("UPDATE budgets SET " +
+                    "last_spend_day = CAST(julianday('now', 'localtime') - 2440587.5 AS INTEGER), " +
+                    "spend_rate = current_spending / MAX(1, " +
+                    "CAST(julianday('now', 'localtime') - 2440587.5 AS INTEGER) - created_at / 86400000) " +
+                    "WHERE current_spending > 0 AND created_at > 0");
+        }
+    };
+
+    static final Migration MIGRATION_17_18 = new Migration(17, 18) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            // No query filters category and is_expense together; the per-category
+            // export needs (category, created_at) to seek and stream in order
+            db.execSQL("DROP INDEX IF EXISTS `index_transactions_category_is_expense_created_at`");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_transactions_category_created_at` " +
+                    "ON `transactions` (`category`, `created_at`)");
+        }
+    };
+
+    static final Migration MIGRATION_18_19 = new Migration(18, 19) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            // Features went stale on every delete and edit before 19. The
+            // triggers are reinstalled and the ledger replayed by MIGRATION_21_22.
+        }
+    };
+
+    static final Migration MIGRATION_19_20 = new Migration(19, 20) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            // Series keys keep non-ASCII letters and digits from 20 on
+            rebuildRecurringSeries(db);
+        }
+    };
+
+    static final Migration MIGRATION_20_21 = new Migration(20, 21) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            // Nothing filters on is_expense; per-category rollup reads seek by category
+            db.execSQL("DROP INDEX IF EXISTS `index_transactions_is_expense_created_at`");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_monthly_category_totals_category_month` " +
+                    "ON `monthly_category_totals` (`category`, `month`)");
+        }
+    };
+
+    static final Migration MIGRATION_21_22 = new Migration(21, 22) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            // Staleness moves out of sample_count so counts stay exact, and
+            // inserts only fold in created_at order
+            db.execSQL("ALTER TABLE `spending_features` ADD COLUMN `last_created_at` INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("ALTER TABLE `spending_features` ADD COLUMN `stale` INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("DROP TRIGGER IF EXISTS trg_spending_features_insert");
+            db.execSQL("DROP TRIGGER IF EXISTS trg_spending_features_delete");
+            db.execSQL("DROP TRIGGER IF EXISTS trg_spending_features_update");
+            createSpendingFeatureTriggers(db);
+            rebuildSpendingFeatures(db);
+        }
+    };
+
+    static final Migration MIGRATION_22_23 = new Migration(22, 23) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            // Edits and deletes left category_stats untouched before 23
+            db.execSQL("ALTER TABLE `category_stats` ADD COLUMN `stale` INTEGER NOT NULL DEFAULT 0");
+            createCategoryStatsTriggers(db);
+            rebuildCategoryStats(db);
+        }
+    };
+
+    static final Migration MIGRATION_23_24 = new Migration(23, 24) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            // addToSpending measured the first gap from created_at's UTC day
+            db.execSQL("ALTER TABLE `budgets` ADD COLUMN `created_day` INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("UPDATE `budgets` SET `created_day` = CAST(" +
+                    "julianday(date(`created_at` / 1000, 'unixepoch', 'localtime')) - 2440587.5 " +
+                    "AS INTEGER) WHERE `created_at` > 0");
+        }
+    };
+
+    static final Migration[] ALL_MIGRATIONS = {
+            MIGRATION_1_2,
+            MIGRATION_2_3,
+            MIGRATION_3_4,
+            MIGRATION_4_5,
+            MIGRATION_5_6,
+            MIGRATION_6_7,
+            MIGRATION_7_8,
+            MIGRATION_8_9,
+            MIGRATION_9_10,
+            MIGRATION_10_11,
+            MIGRATION_11_12,
+            MIGRATION_12_13,
+            MIGRATION_13_14,
+            MIGRATION_14_15,
+            MIGRATION_15_16,
+            MIGRATION_16_17,
+            MIGRATION_17_18,
+            MIGRATION_18_19,
+            MIGRATION_19_20,
+            MIGRATION_20_21,
+            MIGRATION_21_22,
+            MIGRATION_22_23,
+            MIGRATION_23_24
+    };
+
     public static AppDatabase getInstance(Context context) {
         if (INSTANCE == null) {
             synchronized (AppDatabase.class) {
                 if (INSTANCE == null) {
-                    INSTANCE = Room.databaseBuilder(
-                                    context.getApplicationContext(),
-                                    AppDatabase.class,
-                                    "finance_database.db")
-                            .addMigrations(
-                                    MIGRATION_1_2,
-                                    MIGRATION_2_3,
-                                    MIGRATION_3_4,
-                                    MIGRATION_4_5,
-                                    MIGRATION_5_6,
-                                    MIGRATION_6_7,
-                                    MIGRATION_7_8,
-                                    MIGRATION_8_9
-                            )
-                            .addCallback(new RoomDatabase.Callback() {
-                                @Override
-                                public void onCreate(@NonNull SupportSQLiteDatabase db) {
-                                    createAllTables(db);
-                                    insertDefaultAdminUser(db);
-                                }
-                            })
-                            .fallbackToDestructiveMigration()
-                            .build();
+                    INSTANCE = build(context, DATABASE_NAME);
                 }
             }
         }
         return INSTANCE;
     }
 
-    private static void createAllTables(SupportSQLiteDatabase db) {
+    static AppDatabase build(Context context, String name) {
+        return Room.databaseBuilder(
+                        context.getApplicationContext(),
+                        AppDatabase.class,
+                        name)
+                .addMigrations(ALL_MIGRATIONS)
+                .setJournalMode(JournalMode.WRITE_AHEAD_LOGGING)
+                .setQueryExecutor(QUERY_EXECUTOR)
+                .setTransactionExecutor(TRANSACTION_EXECUTOR)
+                .addCallback(new RoomDatabase.Callback() {
+                    @Override
+                    public void onCreate(@NonNull SupportSQLiteDatabase db) {
+                        seedAccountSummary(db);
+                        createAccountSummaryTriggers(db);
+                        createMonthlyTotalsTriggers(db);
+                        createSpendingFeatureTriggers(db);
+                        createCategoryStatsTriggers(db);
+                        insertDefaultAdminUser(db);
+                    }
+                })
+                .build();
+    }
 
-        db.execSQL("CREATE TABLE IF NOT EXISTS transactions (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
-                "title TEXT, amount REAL NOT NULL, " +
-                "category TEXT, isExpense INTEGER NOT NULL, " +
-                "formattedDate TEXT, " +
-                "is_goal_deposit INTEGER NOT NULL DEFAULT 0, " +
-                "goal_id INTEGER NOT NULL DEFAULT -1)");
+    // Reads a feature row, first replaying it from the ledger if a delete or
+    // edit has marked it stale. Returns null when the key has no rows.
+    public SpendingFeature getSpendingFeature(String key) {
+        return runInTransaction(() -> {
+            SpendingFeature feature = spendingFeatureDao().getFeature(key);
+            if (feature == null || !feature.stale) {
+                return feature;
+            }
+            replaySpendingFeature(getOpenHelper().getWritableDatabase(), key);
+            return spendingFeatureDao().getFeature(key);
+        });
+    }
 
+    // Reads a category's expense stats, first re-estimating the median/MAD
+    // sketch if a delete or edit has marked it stale. Null when the category
+    // has no expenses.
+    public CategoryStats getCategoryStats(String category) {
+        return runInTransaction(() -> {
+            CategoryStats stats = categoryStatsDao().get(category);
+            if (stats == null || !stats.stale) {
+                return stats;
+            }
 
-        db.execSQL("CREATE TABLE IF NOT EXISTS budgets (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
-                "title TEXT, category TEXT, " +
-                "`limit` REAL NOT NULL, " +
-                "current_spending REAL NOT NULL DEFAULT 0, " +
-                "created_at INTEGER NOT NULL DEFAULT 0)");
+            double[] amounts = new double[AnomalyDetector.SKETCH_ROWS];
+            int count = 0;
+            try (Cursor cursor = category.isEmpty()
+                    ? query(CATEGORY_SKETCH_UNCATEGORIZED_SQL, null)
+                    : query(CATEGORY_SKETCH_SQL, new Object[]{category})) {
+                while (cursor.moveToNext()) {
+                    amounts[count++] = cursor.getDouble(0);
+                }
+            }
+            AnomalyDetector.reestimateSketch(stats, amounts, count);
+            categoryStatsDao().upsert(stats);
+            return stats;
+        });
+    }
 
+    // Replays the series in date order, for imports that arrived out of order
+    public void rebuildRecurringSeries() {
+        runInTransaction(() -> rebuildRecurringSeries(getOpenHelper().getWritableDatabase()));
+    }
 
-        db.execSQL("CREATE TABLE IF NOT EXISTS savings_goals (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
-                "name TEXT, description TEXT, " +
-                "target_amount REAL NOT NULL, " +
-                "current_amount REAL NOT NULL DEFAULT 0, " +
-                "target_date INTEGER NOT NULL, " +
-                "created_at INTEGER NOT NULL)");
+    // Deleted or edited rows cannot be unwound from the running interval
+    // statistics, so each affected series is replayed from the rows that still
+    // carry its key, or dropped when none are left. Pass both the old and the
+    // new version of an edited row.
+    public void recomputeRecurringSeries(List<Transaction> changed) {
+        runInTransaction(() -> {
+            Set<String> done = new HashSet<>();
+            for (Transaction transaction : changed) {
+                String key = RecurrenceDetector.keyFor(transaction.title, transaction.amount);
+                if (!done.add(key)) {
+                    continue;
+                }
 
+                double[] range = RecurrenceDetector.bucketRange(transaction.amount);
+                Map<String, RecurringSeries> series = new HashMap<>();
+                try (Cursor cursor = query(RECURRENCE_REPLAY_RANGE_SQL, new Object[]{range[0], range[1]})) {
+                    foldRecurringSeries(cursor, series, key);
+                }
+                RecurringSeries replayed = series.get(key);
+                if (replayed == null) {
+                    recurringSeriesDao().delete(key);
+                } else {
+                    recurringSeriesDao().upsert(replayed);
+                }
+            }
+        });
+    }
+
+    // Repair path for the trigger-maintained rollups
+    public void rebuildSummaries() {
+        runInTransaction(() -> {
+            accountSummaryDao().rebuild();
+            monthlyCategoryTotalDao().deleteAll();
+            monthlyCategoryTotalDao().insertFromLedger();
+            rebuildSpendingFeatures(getOpenHelper().getWritableDatabase());
+            rebuildCategoryStats(getOpenHelper().getWritableDatabase());
+            rebuildRecurringSeries(getOpenHelper().getWritableDatabase());
+        });
+    }
+
+    static void reconcileLegacyTables(SupportSQLiteDatabase db) {
+        Set<String> legacyColumns = getColumnNames(db, "transactions");
+        String createdAtFallback = legacyColumns.contains("formatted_date")
+                ? parseFormattedDate("formatted_date")
+                : legacyColumns.contains("formattedDate")
+                ? parseFormattedDate("formattedDate")
+                : NOW_MILLIS;
+        rebuildTable(db, "transactions",
+                "CREATE TABLE `transactions` (" +
+                        "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                        "`title` TEXT, `category` TEXT, `amount` REAL NOT NULL, " +
+                        "`is_expense` INTEGER NOT NULL, `formatted_date` TEXT, " +
+                        "`created_at` INTEGER NOT NULL, " +
+                        "`is_goal_deposit` INTEGER NOT NULL DEFAULT 0, " +
+                        "`goal_id` INTEGER NOT NULL DEFAULT -1)",
+                new String[][]{
+                        {"id", "NULL"},
+                        {"title", "NULL"},
+                        {"category", "NULL"},
+                        {"amount", "0"},
+                        {"is_expense", "(amount < 0)", "isExpense"},
+                        {"formatted_date", "NULL", "formattedDate"},
+                        {"created_at", createdAtFallback, "date"},
+                        {"is_goal_deposit", "0", "isGoalDeposit"},
+                        {"goal_id", "-1", "goalId"}
+                });
+
+        rebuildTable(db, "budgets",
+                "CREATE TABLE `budgets` (" +
+                        "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                        "`title` TEXT, `category` TEXT, `limit` REAL NOT NULL, " +
+                        "`current_spending` REAL NOT NULL DEFAULT 0, " +
+                        "`created_at` INTEGER NOT NULL DEFAULT 0)",
+                new String[][]{
+                        {"id", "NULL"},
+                        {"title", "NULL"},
+                        {"category", "NULL"},
+                        {"limit", "0"},
+                        {"current_spending", "0", "currentSpending"},
+                        {"created_at", "0", "createdAt"}
+                });
+
+        db.execSQL("CREATE TABLE IF NOT EXISTS `savings_goals` (" +
+                "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                "`name` TEXT, `description` TEXT, " +
+                "`target_amount` REAL NOT NULL, " +
+                "`current_amount` REAL NOT NULL DEFAULT 0, " +
+                "`target_date` INTEGER NOT NULL, " +
+                "`created_at` INTEGER NOT NULL)");
+    }
+
+    private static final String NOW_MILLIS = "CAST(strftime('%s', 'now') AS INTEGER) * 1000";
+
+    // Reads a legacy "MMM dd, yyyy" display date as local midnight. Anything
+    // that does not parse (other locales, NULL) falls back to now.
+    private static String parseFormattedDate(String column) {
+        String value = "`" + column + "`";
+        String months = "'JanFebMarAprMayJunJulAugSepOctNovDec'";
+        String monthAt = "instr(" + months + ", substr(" + value + ", 1, 3))";
+        String month = "CASE WHEN " + monthAt + " % 3 = 1 THEN (" + monthAt + " + 2) / 3 ELSE 0 END";
+        String isoDate = "printf('%04d-%02d-%02d', " +
+                "CAST(substr(" + value + ", 9, 4) AS INTEGER), " + month + ", " +
+                "CAST(substr(" + value + ", 5, 2) AS INTEGER))";
+        return "IFNULL(CAST(strftime('%s', " + isoDate + ", 'utc') AS INTEGER) * 1000, " +
+                NOW_MILLIS + ")";
+    }
+
+    /**
+     * Rewrites {@code table} into the layout given by {@code createSql} with a
+     * single INSERT ... SELECT, keeping every row. Each column spec is
+     * {target, fallbackExpr, legacyName...}; the first name that exists in the
+     * old table is copied, otherwise the fallback expression is used.
+     */
+    private static void rebuildTable(SupportSQLiteDatabase db, String table,
+                                     String createSql, String[][] columns) {
+        Set<String> existing = getColumnNames(db, table);
+        if (existing.isEmpty()) {
+            db.execSQL(createSql.replace("CREATE TABLE", "CREATE TABLE IF NOT EXISTS"));
+            return;
+        }
+
+        boolean upToDate = existing.size() == columns.length;
+        StringBuilder targets = new StringBuilder();
+        StringBuilder sources = new StringBuilder();
+        for (String[] column : columns) {
+            String source = null;
+            for (int i = 0; i < column.length && source == null; i++) {
+                if (i == 1) {
+                    continue;
+                }
+                if (existing.contains(column[i])) {
+                    source = "`" + column[i] + "`";
+                }
+            }
+            if (!existing.contains(column[0])) {
+                upToDate = false;
+            }
+            if (source == null) {
+                source = column[1];
+            }
+            if (targets.length() > 0) {
+                targets.append(", ");
+                sources.append(", ");
+            }
+            targets.append('`').append(column[0]).append('`');
+            sources.append(source);
+        }
+
+        if (upToDate) {
+            return;
+        }
+
+        String legacy = table + "_legacy";
+        db.execSQL("ALTER TABLE `" + table + "` RENAME TO `" + legacy + "`");
+        db.execSQL(createSql);
+        db.execSQL("INSERT INTO `" + table + "` (" + targets + ") " +
+                "SELECT " + sources + " FROM `" + legacy + "`");
+        db.execSQL("DROP TABLE `" + legacy + "`");
+    }
+
+    private static Set<String> getColumnNames(SupportSQLiteDatabase db, String table) {
+        Set<String> names = new HashSet<>();
+        try (Cursor cursor = db.query("PRAGMA table_info(`" + table + "`)")) {
+            int nameIndex = cursor.getColumnIndexOrThrow("name");
+            while (cursor.moveToNext()) {
+                names.add(cursor.getString(nameIndex));
+            }
+        }
+        return names;
+    }
+
+    // The v11 index set; names match what Room derives from the @Index list
+    // on Transaction (MIGRATION_17_18 later swaps the category index and
+    // MIGRATION_20_21 drops the is_expense one)
+    private static void createTransactionIndexes(SupportSQLiteDatabase db) {
+        db.execSQL("CREATE INDEX IF NOT EXISTS `index_transactions_created_at` " +
+                "ON `transactions` (`created_at`)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS `index_transactions_goal_id` " +
+                "ON `transactions` (`goal_id`)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS `index_transactions_is_expense_created_at` " +
+                "ON `transactions` (`is_expense`, `created_at`)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS `index_transactions_category_is_expense_created_at` " +
+                "ON `transactions` (`category`, `is_expense`, `created_at`)");
+    }
+
+    private static void seedAccountSummary(SupportSQLiteDatabase db) {
+        db.execSQL("INSERT OR REPLACE INTO account_summary " +
+                "(id, balance, total_income, total_expense, transaction_count) " +
+                "SELECT 1, IFNULL(SUM(amount), 0), " +
+                "IFNULL(SUM(CASE WHEN amount >= 0 THEN amount ELSE 0 END), 0), " +
+                "IFNULL(SUM(CASE WHEN amount < 0 THEN -amount ELSE 0 END), 0), " +
+                "COUNT(*) FROM transactions");
+    }
+
+    // Keeps the single account_summary row in step with every ledger write,
+    // so the balance header never has to read the transactions table.
+    private static void createAccountSummaryTriggers(SupportSQLiteDatabase db) {
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_account_summary_insert " +
+                "AFTER INSERT ON transactions BEGIN " +
+                "UPDATE account_summary SET " +
+                "balance = balance + NEW.amount, " +
+                "total_income = total_income + (CASE WHEN NEW.amount >= 0 THEN NEW.amount ELSE 0 END), " +
+                "total_expense = total_expense + (CASE WHEN NEW.amount < 0 THEN -NEW.amount ELSE 0 END), " +
+                "transaction_count = transaction_count + 1 " +
+                "WHERE id = 1; END");
+
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_account_summary_delete " +
+                "AFTER DELETE ON transactions BEGIN " +
+                "UPDATE account_summary SET " +
+                "balance = balance - OLD.amount, " +
+                "total_income = total_income - (CASE WHEN OLD.amount >= 0 THEN OLD.amount ELSE 0 END), " +
+                "total_expense = total_expense - (CASE WHEN OLD.amount < 0 THEN -OLD.amount ELSE 0 END), " +
+                "transaction_count = transaction_count - 1 " +
+                "WHERE id = 1; END");
+
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_account_summary_update " +
+                "AFTER UPDATE OF amount ON transactions BEGIN " +
+                "UPDATE account_summary SET " +
+                "balance = balance - OLD.amount + NEW.amount, " +
+                "total_income = total_income " +
+                "- (CASE WHEN OLD.amount >= 0 THEN OLD.amount ELSE 0 END) " +
+                "+ (CASE WHEN NEW.amount >= 0 THEN NEW.amount ELSE 0 END), " +
+                "total_expense = total_expense " +
+                "- (CASE WHEN OLD.amount < 0 THEN -OLD.amount ELSE 0 END) " +
+                "+ (CASE WHEN NEW.amount < 0 THEN -NEW.amount ELSE 0 END) " +
+                "WHERE id = 1; END");
+    }
+
+    private static void createMonthlyTotalsTriggers(SupportSQLiteDatabase db) {
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_monthly_totals_insert " +
+                "AFTER INSERT ON transactions BEGIN " +
+                addToMonthlyTotals("NEW", MONTH_OF_NEW, "+") +
+                "END");
+
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_monthly_totals_delete " +
+                "AFTER DELETE ON transactions BEGIN " +
+                addToMonthlyTotals("OLD", MONTH_OF_OLD, "-") +
+                "END");
+
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_monthly_totals_update " +
+                "AFTER UPDATE OF amount, category, epoch_day ON transactions BEGIN " +
+                addToMonthlyTotals("OLD", MONTH_OF_OLD, "-") +
+                addToMonthlyTotals("NEW", MONTH_OF_NEW, "+") +
+                "END");
+    }
+
+    private static String addToMonthlyTotals(String row, String month, String sign) {
+        String key = "month = " + month + " AND category = IFNULL(" + row + ".category, '')";
+        return "INSERT OR IGNORE INTO monthly_category_totals " +
+                "(month, category, expense_total, income_total, transaction_count) " +
+                "VALUES (" + month + ", IFNULL(" + row + ".category, ''), 0, 0, 0); " +
+                "UPDATE monthly_category_totals SET " +
+                "expense_total = expense_total " + sign +
+                " (CASE WHEN " + row + ".amount < 0 THEN -" + row + ".amount ELSE 0 END), " +
+                "income_total = income_total " + sign +
+                " (CASE WHEN " + row + ".amount >= 0 THEN " + row + ".amount ELSE 0 END), " +
+                "transaction_count = transaction_count " + sign + " 1 " +
+                "WHERE " + key + "; " +
+                "DELETE FROM monthly_category_totals WHERE " + key +
+                " AND transaction_count <= 0; ";
+    }
+
+    // Inserts in created_at order fold into the EWMA in place, the same order
+    // rebuildSpendingFeatures uses. Deletes, edits and older inserts cannot be
+    // folded, so they keep sample_count exact, mark the touched keys stale,
+    // and the next read replays them, see getSpendingFeature.
+    private static void createSpendingFeatureTriggers(SupportSQLiteDatabase db) {
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_spending_features_insert " +
+                "AFTER INSERT ON transactions BEGIN " +
+                updateSpendingFeature("'" + SpendingFeature.ALL_CATEGORIES + "'") +
+                updateSpendingFeature("IFNULL(NEW.category, '')") +
+                "END");
+
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_spending_features_delete " +
+                "AFTER DELETE ON transactions BEGIN " +
+                markSpendingFeatureStale("'" + SpendingFeature.ALL_CATEGORIES + "'", "- 1") +
+                markSpendingFeatureStale("IFNULL(OLD.category, '')", "- 1") +
+                "END");
+
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_spending_features_update " +
+                "AFTER UPDATE OF amount, category, epoch_day, created_at ON transactions BEGIN " +
+                markSpendingFeatureStale("'" + SpendingFeature.ALL_CATEGORIES + "'", "") +
+                markSpendingFeatureStale("IFNULL(OLD.category, '')", "- 1") +
+                "INSERT OR IGNORE INTO spending_features " +
+                "(feature_key, ewma_amount, sample_count, last_epoch_day, last_created_at, stale) " +
+                "VALUES (IFNULL(NEW.category, ''), 0, 0, 0, 0, 1); " +
+                markSpendingFeatureStale("IFNULL(NEW.category, '')", "+ 1") +
+                "END");
+    }
 
-        db.execSQL("CREATE TABLE IF NOT EXISTS users (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
-                "email TEXT NOT NULL, " +
-                "password TEXT NOT NULL, " +
-                "name TEXT, " +
-                "created_at INTEGER NOT NULL)");
+    private static String markSpendingFeatureStale(String key, String countChange) {
+        return "UPDATE spending_features SET stale = 1, sample_count = sample_count " + countChange +
+                " WHERE feature_key = " + key + "; ";
+    }
+
+    private static String updateSpendingFeature(String key) {
+        String inOrder = "(sample_count = 0 OR NEW.created_at >= last_created_at)";
+        return "INSERT OR IGNORE INTO spending_features " +
+                "(feature_key, ewma_amount, sample_count, last_epoch_day, last_created_at, stale) " +
+                "VALUES (" + key + ", 0, 0, 0, 0, 0); " +
+                "UPDATE spending_features SET " +
+                "ewma_amount = CASE WHEN stale = 1 OR NOT " + inOrder + " THEN ewma_amount " +
+                "WHEN sample_count = 0 THEN ABS(NEW.amount) " +
+                "ELSE ewma_amount + " + SpendingFeature.EWMA_ALPHA +
+                " * (ABS(NEW.amount) - ewma_amount) END, " +
+                "stale = CASE WHEN " + inOrder + " THEN stale ELSE 1 END, " +
+                "last_created_at = CASE WHEN " + inOrder + " THEN NEW.created_at " +
+                "ELSE last_created_at END, " +
+                "sample_count = sample_count + 1, " +
+                "last_epoch_day = MAX(last_epoch_day, NEW.epoch_day) " +
+                "WHERE feature_key = " + key + "; ";
+    }
+
+    // An EWMA cannot be un-applied on delete, so repairs replay the ledger in
+    // date order, holding one accumulator per category.
+    private static void rebuildSpendingFeatures(SupportSQLiteDatabase db) {
+        Map<String, double[]> features = new HashMap<>();
+        try (Cursor cursor = db.query("SELECT category, amount, epoch_day, created_at " +
+                "FROM transactions ORDER BY created_at, id")) {
+            while (cursor.moveToNext()) {
+                String category = cursor.isNull(0) ? "" : cursor.getString(0);
+                double amount = Math.abs(cursor.getDouble(1));
+                int epochDay = cursor.getInt(2);
+                long createdAt = cursor.getLong(3);
+                accumulateFeature(features, SpendingFeature.ALL_CATEGORIES, amount, epochDay, createdAt);
+                accumulateFeature(features, category, amount, epochDay, createdAt);
+            }
+        }
+
+        db.execSQL("DELETE FROM spending_features");
+        for (Map.Entry<String, double[]> entry : features.entrySet()) {
+            double[] f = entry.getValue();
+            db.execSQL("INSERT INTO spending_features " +
+                            "(feature_key, ewma_amount, sample_count, last_epoch_day, " +
+                            "last_created_at, stale) VALUES (?, ?, ?, ?, ?, 0)",
+                    new Object[]{entry.getKey(), f[0], (int) f[1], (int) f[2], (long) f[3]});
+        }
+    }
+
+    // The triggers keep sample_count exact, so a replay only needs the
+    // newest REPLAY_ROWS rows for the EWMA and one MAX for the newest day
+    private static void replaySpendingFeature(SupportSQLiteDatabase db, String key) {
+        int sampleCount = 0;
+        try (Cursor cursor = db.query("SELECT sample_count FROM spending_features " +
+                "WHERE feature_key = ?", new Object[]{key})) {
+            if (cursor.moveToFirst()) {
+                sampleCount = cursor.getInt(0);
+            }
+        }
+        if (sampleCount <= 0) {
+            db.execSQL("DELETE FROM spending_features WHERE feature_key = ?", new Object[]{key});
+            return;
+        }
+
+        boolean all = SpendingFeature.ALL_CATEGORIES.equals(key);
+        Object[] args = all || key.isEmpty() ? new Object[0] : new Object[]{key};
+        double ewma;
+        long lastCreatedAt;
+        try (Cursor cursor = db.query(all ? FEATURE_REPLAY_ALL_SQL : key.isEmpty()
+                ? FEATURE_REPLAY_UNCATEGORIZED_SQL : FEATURE_REPLAY_CATEGORY_SQL, args)) {
+            if (!cursor.moveToFirst()) {
+                db.execSQL("DELETE FROM spending_features WHERE feature_key = ?", new Object[]{key});
+                return;
+            }
+            lastCreatedAt = cursor.getLong(1);
+            // Rows come newest first; fold them oldest first, as inserts do
+            cursor.moveToLast();
+            ewma = Math.abs(cursor.getDouble(0));
+            while (cursor.moveToPrevious()) {
+                ewma += SpendingFeature.EWMA_ALPHA * (Math.abs(cursor.getDouble(0)) - ewma);
+            }
+        }
+
+        int lastEpochDay;
+        try (Cursor cursor = db.query(all ? FEATURE_LAST_DAY_ALL_SQL : key.isEmpty()
+                ? FEATURE_LAST_DAY_UNCATEGORIZED_SQL : FEATURE_LAST_DAY_CATEGORY_SQL, args)) {
+            cursor.moveToFirst();
+            lastEpochDay = cursor.getInt(0);
+        }
+        db.execSQL("UPDATE spending_features SET ewma_amount = ?, last_epoch_day = ?, " +
+                        "last_created_at = ?, stale = 0 WHERE feature_key = ?",
+                new Object[]{ewma, lastEpochDay, lastCreatedAt, key});
+    }
+
+    // Inserts are scored and folded in app code, which needs the stats before
+    // the row is written. Deletes and edits take the row back out of the
+    // Welford moments exactly; the median/MAD sketch cannot be un-applied, so
+    // they mark it stale for getCategoryStats to re-estimate.
+    private static void createCategoryStatsTriggers(SupportSQLiteDatabase db) {
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_category_stats_delete " +
+                "AFTER DELETE ON transactions BEGIN " +
+                removeFromCategoryStats("OLD") +
+                "END");
+
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_category_stats_update " +
+                "AFTER UPDATE OF amount, category, is_expense ON transactions BEGIN " +
+                removeFromCategoryStats("OLD") +
+                addToCategoryStats("NEW") +
+                "END");
+    }
 
-        db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS index_users_email ON users(email)");
+    private static String removeFromCategoryStats(String row) {
+        String x = "ABS(" + row + ".amount)";
+        String key = "category = IFNULL(" + row + ".category, '')";
+        String meanWithout = "(sample_count * mean - " + x + ") / (sample_count - 1)";
+        return "UPDATE category_stats SET " +
+                "sample_count = sample_count - 1, " +
+                "mean = CASE WHEN sample_count <= 1 THEN 0 ELSE " + meanWithout + " END, " +
+                "m2 = CASE WHEN sample_count <= 1 THEN 0 " +
+                "ELSE MAX(0, m2 - (" + x + " - mean) * (" + x + " - " + meanWithout + ")) END, " +
+                "stale = 1 " +
+                "WHERE " + key + " AND " + row + ".is_expense = 1; " +
+                "DELETE FROM category_stats WHERE " + key + " AND sample_count <= 0; ";
+    }
+
+    private static String addToCategoryStats(String row) {
+        String x = "ABS(" + row + ".amount)";
+        String key = "category = IFNULL(" + row + ".category, '')";
+        String step = "(" + x + " - mean) / (sample_count + 1)";
+        return "INSERT OR IGNORE INTO category_stats " +
+                "(category, sample_count, mean, m2, median, mad, stale) " +
+                "SELECT IFNULL(" + row + ".category, ''), 0, 0, 0, 0, 0, 1 " +
+                "WHERE " + row + ".is_expense = 1; " +
+                "UPDATE category_stats SET " +
+                "sample_count = sample_count + 1, " +
+                "mean = mean + " + step + ", " +
+                "m2 = m2 + (" + x + " - mean) * (" + x + " - mean - " + step + "), " +
+                "stale = 1 " +
+                "WHERE " + key + " AND " + row + ".is_expense = 1; ";
+    }
+
+    // Replays expenses in date order through the same O(1) update used on insert
+    private static void rebuildCategoryStats(SupportSQLiteDatabase db) {
+        Map<String, CategoryStats> stats = new HashMap<>();
+        try (Cursor cursor = db.query("SELECT category, amount FROM transactions " +
+                "WHERE is_expense = 1 ORDER BY created_at, id")) {
+            while (cursor.moveToNext()) {
+                String category = cursor.isNull(0) ? "" : cursor.getString(0);
+                CategoryStats s = stats.get(category);
+                if (s == null) {
+                    s = new CategoryStats();
+                    s.category = category;
+                    stats.put(category, s);
+                }
+                AnomalyDetector.update(s, Math.abs(cursor.getDouble(1)));
+            }
+        }
+
+        db.execSQL("DELETE FROM category_stats");
+        for (CategoryStats s : stats.values()) {
+            db.execSQL("INSERT INTO category_stats " +
+                            "(category, sample_count, mean, m2, median, mad) VALUES (?, ?, ?, ?, ?, ?)",
+                    new Object[]{s.category, s.sampleCount, s.mean, s.m2, s.median, s.mad});
+        }
+    }
+
+    // One pass over the epoch_day index with a hash lookup per row, so the
+    // backfill stays linear in the ledger size; new rows are folded in by
+    // RecurrenceDetector.update as they are inserted
+    private static void rebuildRecurringSeries(SupportSQLiteDatabase db) {
+        Map<String, RecurringSeries> series = new HashMap<>();
+        try (Cursor cursor = db.query(RECURRENCE_REPLAY_ALL_SQL)) {
+            foldRecurringSeries(cursor, series, null);
+        }
+
+        db.execSQL("DELETE FROM recurring_series");
+        SupportSQLiteStatement insert = db.compileStatement("INSERT INTO recurring_series " +
+                "(series_key, title, category, typical_amount, occurrences, last_epoch_day, " +
+                "interval_count, interval_mean, interval_m2, period, next_epoch_day) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+        for (RecurringSeries s : series.values()) {
+            insert.clearBindings();
+            insert.bindString(1, s.seriesKey);
+            insert.bindString(2, s.title);
+            if (s.category != null) insert.bindString(3, s.category);
+            insert.bindDouble(4, s.typicalAmount);
+            insert.bindLong(5, s.occurrences);
+            insert.bindLong(6, s.lastEpochDay);
+            insert.bindLong(7, s.intervalCount);
+            insert.bindDouble(8, s.intervalMean);
+            insert.bindDouble(9, s.intervalM2);
+            if (s.period != null) insert.bindString(10, s.period);
+            insert.bindLong(11, s.nextEpochDay);
+            insert.executeInsert();
+        }
+    }
+
+    // Folds date-ordered (title, category, amount, epoch_day) rows into their
+    // series; with onlyKey set, rows of other series are skipped
+    private static void foldRecurringSeries(Cursor cursor, Map<String, RecurringSeries> series,
+                                            String onlyKey) {
+        while (cursor.moveToNext()) {
+            String title = cursor.isNull(0) ? "" : cursor.getString(0);
+            double amount = cursor.getDouble(2);
+            String key = RecurrenceDetector.keyFor(title, amount);
+            if (onlyKey != null && !onlyKey.equals(key)) {
+                continue;
+            }
+            RecurringSeries s = series.get(key);
+            if (s == null) {
+                s = new RecurringSeries();
+                s.seriesKey = key;
+                s.title = title;
+                s.category = cursor.isNull(1) ? null : cursor.getString(1);
+                series.put(key, s);
+            }
+            RecurrenceDetector.update(s, amount, cursor.getInt(3));
+        }
+    }
+
+    // {ewma, count, newest epoch day, last created_at}; created_at fits a double exactly
+    private static void accumulateFeature(Map<String, double[]> features, String key,
+                                          double amount, int epochDay, long createdAt) {
+        double[] f = features.get(key);
+        if (f == null) {
+            features.put(key, new double[]{amount, 1, epochDay, createdAt});
+            return;
+        }
+        f[0] += SpendingFeature.EWMA_ALPHA * (amount - f[0]);
+        f[1]++;
+        f[2] = Math.max(f[2], epochDay);
+        f[3] = createdAt;
     }
 
     private static void insertDefaultAdminUser(SupportSQLiteDatabase db) {
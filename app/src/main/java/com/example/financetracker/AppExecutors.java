@@ -0,0 +1,28 @@
+package com.example.financetracker;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Background threads for app code. Room keeps its own query and transaction
+ * executors; app tasks run here so a slow save or list build never queues
+ * behind, or holds up, Room's LiveData refreshes.
+ */
+public final class AppExecutors {
+    private static final int READ_THREADS = 2;
+
+    // One writer thread keeps app writes in the order they were issued
+    private static final ExecutorService WRITE_EXECUTOR = Executors.newSingleThreadExecutor();
+    private static final ExecutorService READ_EXECUTOR = Executors.newFixedThreadPool(READ_THREADS);
+
+    private AppExecutors() {
+    }
+
+    public static ExecutorService getWriteExecutor() {
+        return WRITE_EXECUTOR;
+    }
+
+    public static ExecutorService getReadExecutor() {
+        return READ_EXECUTOR;
+    }
+}
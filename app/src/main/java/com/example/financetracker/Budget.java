@@ -6,6 +6,10 @@ import androidx.room.ColumnInfo;
 
 @Entity(tableName = "budgets")
 public class Budget {
+    // Decay constant for spend_rate, bound into BudgetDao.addToSpending
+    static final int SPEND_RATE_TAU_DAYS = 14;
+    private static final int MAX_FORECAST_DAYS = 3650;
+
     @PrimaryKey(autoGenerate = true)
     public int id;
 
@@ -18,4 +22,31 @@ public class Budget {
 
     @ColumnInfo(name = "created_at")
     public long createdAt = System.currentTimeMillis();
+
+    // Decayed spend per day, maintained by BudgetDao.addToSpending
+    @ColumnInfo(name = "spend_rate", defaultValue = "0")
+    public double spendRate = 0;
+
+    @ColumnInfo(name = "last_spend_day", defaultValue = "0")
+    public int lastSpendDay = 0;
+
+    // Local day of created_at, see EpochDays
+    @ColumnInfo(name = "created_day", defaultValue = "0")
+    public int createdDay = EpochDays.fromMillis(createdAt);
+
+    // Epoch day the limit is projected to be reached, or -1 if spending has stalled.
+    // Days without spending since last_spend_day decay the rate the same way addToSpending would.
+    public int projectedExhaustionDay(int today) {
+        double remaining = limit - currentSpending;
+        if (remaining <= 0) {
+            return lastSpendDay;
+        }
+        int idle = Math.max(0, today - lastSpendDay);
+        double rate = spendRate * SPEND_RATE_TAU_DAYS / (SPEND_RATE_TAU_DAYS + idle);
+        if (rate <= 0) {
+            return -1;
+        }
+        double days = remaining / rate;
+        return days > MAX_FORECAST_DAYS ? -1 : today + (int) Math.ceil(days);
+    }
 }
\ No newline at end of file
@@ -1,32 +1,42 @@
 package com.example.financetracker;
 
-import android.content.Context;
-import android.content.res.ColorStateList;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ProgressBar;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
-import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import java.util.ArrayList;
 import java.util.List;
 
 public class BudgetAdapter extends RecyclerView.Adapter<BudgetAdapter.ViewHolder> {
-    private List<Budget> budgets;
-    private final Context context;
+    static final DiffUtil.ItemCallback<BudgetRow> DIFF_CALLBACK = new DiffUtil.ItemCallback<BudgetRow>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull BudgetRow a, @NonNull BudgetRow b) {
+            return a.budget.id == b.budget.id;
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull BudgetRow a, @NonNull BudgetRow b) {
+            return a.sameContentAs(b);
+        }
+    };
+
+    private final AsyncListDiffer<BudgetRow> differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
     private final OnBudgetClickListener listener;
 
     public interface OnBudgetClickListener {
         void onBudgetClick(Budget budget);
     }
 
-    public BudgetAdapter(List<Budget> budgets, Context context, OnBudgetClickListener listener) {
-        this.budgets = budgets;
-        this.context = context;
+    public BudgetAdapter(List<BudgetRow> rows, OnBudgetClickListener listener) {
         this.listener = listener;
+        setHasStableIds(true);
+        submit(new ArrayList<>(rows));
     }
 
     @NonNull
@@ -34,65 +44,61 @@ public class BudgetAdapter extends RecyclerView.Adapter<BudgetAdapter.ViewHolder
     public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(parent.getContext())
                 .inflate(R.layout.item_budget, parent, false);
-        return new ViewHolder(view);
+        ViewHolder holder = new ViewHolder(view);
+        view.setOnClickListener(v -> {
+            int position = holder.getAdapterPosition();
+            if (listener != null && position != RecyclerView.NO_POSITION) {
+                listener.onBudgetClick(getBudgetAtPosition(position));
+            }
+        });
+        return holder;
     }
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        Budget budget = budgets.get(position);
-        holder.tvCategory.setText(budget.category);
-        holder.tvLimit.setText(String.format("Limit: £%.2f", budget.limit));
-
-        double percentage = (budget.currentSpending / budget.limit) * 100;
-        percentage = Math.min(percentage, 100);
-
-        holder.progressBar.setProgress((int) percentage);
-        holder.tvSpent.setText(String.format("Spent: £%.2f (%.0f%%)",
-                budget.currentSpending, percentage));
-
-        int color;
-        if (percentage < 75) {
-            color = ContextCompat.getColor(context, R.color.progress_green);
-        } else if (percentage < 100) {
-            color = ContextCompat.getColor(context, R.color.progress_yellow);
+        BudgetRow row = differ.getCurrentList().get(position);
+        holder.tvCategory.setText(row.category);
+        holder.tvLimit.setText(row.limitText);
+        holder.tvSpent.setText(row.spentText);
+        holder.progressBar.setProgress(row.progress);
+        holder.progressBar.setProgressTintList(row.progressTint);
+
+        if (row.forecastText != null) {
+            holder.tvForecast.setText(row.forecastText);
+            holder.tvForecast.setVisibility(View.VISIBLE);
         } else {
-            color = ContextCompat.getColor(context, R.color.progress_red);
+            holder.tvForecast.setVisibility(View.GONE);
         }
-
-        holder.progressBar.setProgressTintList(ColorStateList.valueOf(color));
-
-        holder.itemView.setOnClickListener(v -> {
-            if (listener != null) {
-                listener.onBudgetClick(budget);
-            }
-        });
     }
 
     @Override
     public int getItemCount() {
-        return budgets.size();
+        return differ.getCurrentList().size();
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return differ.getCurrentList().get(position).budget.id;
     }
 
-    public void setBudgets(List<Budget> newBudgets) {
-        this.budgets = new ArrayList<>(newBudgets);
-        notifyDataSetChanged();
+    public void setBudgets(List<BudgetRow> rows) {
+        submit(new ArrayList<>(rows));
     }
 
     public Budget getBudgetAtPosition(int position) {
-        return budgets.get(position);
+        return differ.getCurrentList().get(position).budget;
     }
 
-    public void removeBudgetAtPosition(int position) {
-        budgets.remove(position);
-        notifyItemRemoved(position);
+    public List<BudgetRow> getBudgets() {
+        return differ.getCurrentList();
     }
 
-    public List<Budget> getBudgets() {
-        return budgets;
+    private void submit(List<BudgetRow> list) {
+        differ.submitList(list);
     }
 
     public static class ViewHolder extends RecyclerView.ViewHolder {
-        TextView tvCategory, tvLimit, tvSpent;
+        TextView tvCategory, tvLimit, tvSpent, tvForecast;
         ProgressBar progressBar;
 
         public ViewHolder(@NonNull View itemView) {
@@ -100,7 +106,8 @@ public class BudgetAdapter extends RecyclerView.Adapter<BudgetAdapter.ViewHolder
             tvCategory = itemView.findViewById(R.id.tvCategory);
             tvLimit = itemView.findViewById(R.id.tvLimit);
             tvSpent = itemView.findViewById(R.id.tvSpent);
+            tvForecast = itemView.findViewById(R.id.tvForecast);
             progressBar = itemView.findViewById(R.id.progressBar);
         }
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.example.financetracker;
 
+import androidx.lifecycle.LiveData;
 import androidx.room.Dao;
 import androidx.room.Delete;
 import androidx.room.Insert;
@@ -12,6 +13,22 @@ import java.util.List;
 
 @Dao
 public interface BudgetDao {
+    String BY_CATEGORY = "SELECT * FROM budgets WHERE category = :category LIMIT 1";
+    String ALL = "SELECT * FROM budgets";
+    String BY_ID = "SELECT * FROM budgets WHERE id = :id";
+    // spend_rate is a decayed daily rate: (rate * tau + amount) / (tau + gap), with tau
+    // Budget.SPEND_RATE_TAU_DAYS. Regular spending of s per day, at any spacing, converges
+    // to s. The first spend measures its gap from the budget's creation day, capped at 30 days.
+    String ADD_TO_SPENDING = "UPDATE budgets SET " +
+            "current_spending = current_spending + :amount, " +
+            "spend_rate = (spend_rate * :tau + :amount) / (:tau + CASE WHEN last_spend_day = 0 " +
+            "THEN MIN(30, MAX(1, :epochDay - created_day)) " +
+            "ELSE MAX(0, :epochDay - last_spend_day) END), " +
+            "last_spend_day = MAX(last_spend_day, :epochDay) " +
+            "WHERE category = :category";
+    String DELETE_BY_CATEGORY = "DELETE FROM budgets WHERE category = :category";
+    String COUNT = "SELECT COUNT(*) FROM budgets";
+    String EXISTS = "SELECT EXISTS(SELECT 1 FROM budgets WHERE category = :category LIMIT 1)";
 
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void insert(Budget budget);
@@ -21,31 +38,41 @@ public interface BudgetDao {
 
 
     @Transaction
-    @Query("SELECT * FROM budgets WHERE category = :category LIMIT 1")
+    @Query(BY_CATEGORY)
     Budget getBudgetByCategory(String category);
 
-    @Query("SELECT * FROM budgets")
+    @Query(ALL)
     List<Budget> getAllBudgets();
 
-    @Query("SELECT * FROM budgets WHERE id = :id")
+    @Query(ALL)
+    LiveData<List<Budget>> observeAllBudgets();
+
+    @Query(BY_ID)
     Budget getBudgetById(int id);
 
 
     @Update(onConflict = OnConflictStrategy.REPLACE)
     int update(Budget budget);
 
-    @Query("UPDATE budgets SET current_spending = current_spending + :amount WHERE category = :category")
-    int addToSpending(String category, double amount);
+    @Query(ADD_TO_SPENDING)
+    int addToSpending(String category, double amount, int epochDay, int tau);
+
+    default int addToSpending(String category, double amount, int epochDay) {
+        return addToSpending(category, amount, epochDay, Budget.SPEND_RATE_TAU_DAYS);
+    }
 
 
     @Delete
     int delete(Budget budget);
 
-    @Query("DELETE FROM budgets WHERE category = :category")
+    @Delete
+    int delete(List<Budget> budgets);
+
+    @Query(DELETE_BY_CATEGORY)
     int deleteByCategory(String category);
 
     // Debugging and utility operations
-    @Query("SELECT COUNT(*) FROM budgets")
+    @Query(COUNT)
     int getCount();
 
     @Query("SELECT changes() AS affected_rows")
@@ -54,6 +81,6 @@ public interface BudgetDao {
     @Query("DELETE FROM budgets")
     void deleteAll();
 
-    @Query("SELECT EXISTS(SELECT 1 FROM budgets WHERE category = :category LIMIT 1)")
+    @Query(EXISTS)
     boolean exists(String category);
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.example.financetracker;
+
+import android.content.res.ColorStateList;
+
+import androidx.annotation.NonNull;
+
+import java.util.Objects;
+
+// Display-ready budget, built off the main thread by RowPresenter
+public final class BudgetRow {
+    public final Budget budget;
+    public final String category;
+    public final String limitText;
+    public final String spentText;
+    public final int progress;
+    public final ColorStateList progressTint;
+    // Null when there is no forecast to show
+    public final String forecastText;
+
+    BudgetRow(@NonNull Budget budget, String limitText, String spentText, int progress,
+              ColorStateList progressTint, String forecastText) {
+        this.budget = budget;
+        this.category = budget.category;
+        this.limitText = limitText;
+        this.spentText = spentText;
+        this.progress = progress;
+        this.progressTint = progressTint;
+        this.forecastText = forecastText;
+    }
+
+    boolean sameContentAs(BudgetRow other) {
+        return progress == other.progress
+                && progressTint == other.progressTint
+                && Objects.equals(category, other.category)
+                && Objects.equals(limitText, other.limitText)
+                && Objects.equals(spentText, other.spentText)
+                && Objects.equals(forecastText, other.forecastText);
+    }
+}
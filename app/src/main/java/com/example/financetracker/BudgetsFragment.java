@@ -1,12 +1,7 @@
 package com.example.financetracker;
 
-import android.app.Activity;
-import android.content.Context;
 import android.content.Intent;
-import android.graphics.Canvas;
-import android.graphics.Paint;
 import android.os.Bundle;
-import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -14,26 +9,20 @@ import android.widget.TextView;
 import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
-import androidx.core.content.ContextCompat;
 import androidx.fragment.app.Fragment;
-import androidx.recyclerview.widget.ItemTouchHelper;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class BudgetsFragment extends Fragment implements BudgetAdapter.OnBudgetClickListener {
 
-    private static final int REQUEST_ADD_BUDGET = 1;
-    private static final int REQUEST_EDIT_BUDGET = 2;
-
     private RecyclerView recyclerView;
     private BudgetAdapter adapter;
-    private AppDatabase db;
-    private ExecutorService executor;
+    private SwipeToDeleteHelper<Budget> swipeHelper;
+    private BudgetsViewModel viewModel;
     private TextView tvEmptyState;
 
     @Nullable
@@ -46,16 +35,18 @@ public class BudgetsFragment extends Fragment implements BudgetAdapter.OnBudgetC
         tvEmptyState = view.findViewById(R.id.tvEmptyState);
         FloatingActionButton fabAddBudget = view.findViewById(R.id.fabAddBudget);
 
-        db = AppDatabase.getInstance(requireContext());
-        executor = Executors.newSingleThreadExecutor();
+        viewModel = new ViewModelProvider(requireActivity()).get(BudgetsViewModel.class);
 
         recyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
-        adapter = new BudgetAdapter(new ArrayList<>(), requireContext(), this);
+        adapter = new BudgetAdapter(new ArrayList<>(), this);
         recyclerView.setAdapter(adapter);
 
         fabAddBudget.setOnClickListener(v -> launchAddBudgetActivity(false, -1));
 
-        loadBudgets();
+        viewModel.getBudgets().observe(getViewLifecycleOwner(), rows -> {
+            adapter.setBudgets(rows);
+            updateEmptyState(rows.isEmpty());
+        });
 
         return view;
     }
@@ -77,71 +68,64 @@ public class BudgetsFragment extends Fragment implements BudgetAdapter.OnBudgetC
         if (isEditMode) {
             intent.putExtra("BUDGET_ID", budgetId);
         }
-        startActivityForResult(intent, isEditMode ? REQUEST_EDIT_BUDGET : REQUEST_ADD_BUDGET);
+        startActivity(intent);
     }
 
     private void setupSwipeToDelete() {
-        new ItemTouchHelper(new ItemTouchHelper.SimpleCallback(0,
-                ItemTouchHelper.LEFT | ItemTouchHelper.RIGHT) {
-
-            @Override
-            public boolean onMove(@NonNull RecyclerView recyclerView,
-                                  @NonNull RecyclerView.ViewHolder viewHolder,
-                                  @NonNull RecyclerView.ViewHolder target) {
-                return false;
-            }
-
-            @Override
-            public void onSwiped(@NonNull RecyclerView.ViewHolder viewHolder, int direction) {
-                int position = viewHolder.getAdapterPosition();
-                Budget budget = adapter.getBudgetAtPosition(position);
-                deleteBudget(budget, position);
-            }
-
-            @Override
-            public void onChildDraw(@NonNull Canvas c, @NonNull RecyclerView recyclerView,
-                                    @NonNull RecyclerView.ViewHolder viewHolder,
-                                    float dX, float dY, int actionState, boolean isCurrentlyActive) {
-                View itemView = viewHolder.itemView;
-                Paint paint = new Paint();
-                paint.setColor(ContextCompat.getColor(requireContext(), R.color.delete_red));
-
-                if (dX > 0) {
-                    c.drawRect((float) itemView.getLeft(), (float) itemView.getTop(), dX,
-                            (float) itemView.getBottom(), paint);
-                } else {
-                    c.drawRect((float) itemView.getRight() + dX, (float) itemView.getTop(),
-                            (float) itemView.getRight(), (float) itemView.getBottom(), paint);
-                }
-
-                super.onChildDraw(c, recyclerView, viewHolder, dX, dY, actionState, isCurrentlyActive);
-            }
-        }).attachToRecyclerView(recyclerView);
+        swipeHelper = new SwipeToDeleteHelper<>(requireContext(), recyclerView, "Budget",
+                new SwipeToDeleteHelper.Host<Budget>() {
+                    @Override
+                    public Budget itemAt(int position) {
+                        return adapter.getBudgetAtPosition(position);
+                    }
+
+                    @Override
+                    public void hide(Budget budget) {
+                        viewModel.hide(budget.id);
+                    }
+
+                    @Override
+                    public void restore(List<Budget> budgets) {
+                        viewModel.restore(budgets);
+                    }
+
+                    @Override
+                    public void deleteAll(AppDatabase db, List<Budget> budgets) {
+                        db.budgetDao().delete(budgets);
+                    }
+
+                    @Override
+                    public void onDeleteFinished(List<Budget> budgets, boolean success) {
+                        if (success) {
+                            viewModel.forget(budgets);
+                            return;
+                        }
+                        viewModel.restore(budgets);
+                        if (isAdded()) {
+                            Toast.makeText(requireContext(), "Failed to delete budget", Toast.LENGTH_SHORT).show();
+                        }
+                    }
+                });
     }
 
+    @Override
+    public void onStop() {
+        super.onStop();
+        if (swipeHelper != null) {
+            swipeHelper.flush();
+        }
+    }
 
-
-    private void deleteBudget(Budget budget, int position) {
-        executor.execute(() -> {
-            try {
-                db.budgetDao().delete(budget);
-                requireActivity().runOnUiThread(() -> {
-                    adapter.removeBudgetAtPosition(position);
-                    Toast.makeText(requireContext(), "Budget deleted", Toast.LENGTH_SHORT).show();
-                    updateEmptyState(adapter.getBudgets());
-                });
-            } catch (Exception e) {
-                Log.e("BudgetsFragment", "Error deleting budget", e);
-                requireActivity().runOnUiThread(() -> {
-                    adapter.notifyItemChanged(position);
-                    Toast.makeText(requireContext(), "Failed to delete budget", Toast.LENGTH_SHORT).show();
-                });
-            }
-        });
+    @Override
+    public void onHiddenChanged(boolean hidden) {
+        super.onHiddenChanged(hidden);
+        if (hidden && swipeHelper != null) {
+            swipeHelper.flush();
+        }
     }
 
-    private void updateEmptyState(List<Budget> budgets) {
-        if (budgets.isEmpty()) {
+    private void updateEmptyState(boolean isEmpty) {
+        if (isEmpty) {
             tvEmptyState.setVisibility(View.VISIBLE);
             recyclerView.setVisibility(View.GONE);
         } else {
@@ -149,44 +133,4 @@ public class BudgetsFragment extends Fragment implements BudgetAdapter.OnBudgetC
             recyclerView.setVisibility(View.VISIBLE);
         }
     }
-
-        @Override
-        public void onActivityResult(int requestCode, int resultCode, @Nullable Intent data) {
-            super.onActivityResult(requestCode, resultCode, data);
-            if (resultCode == Activity.RESULT_OK) {
-
-                loadBudgets();
-            }
-        }
-
-        private void loadBudgets() {
-            executor.execute(() -> {
-                try {
-                    List<Budget> budgets = db.budgetDao().getAllBudgets();
-                    requireActivity().runOnUiThread(() -> {
-                        adapter.setBudgets(budgets);
-                        updateEmptyState(budgets);
-
-
-                        Log.d("Budgets", "Loaded " + budgets.size() + " budgets");
-                        for (Budget b : budgets) {
-                            Log.d("Budgets", b.title + " - £" + b.limit);
-                        }
-                    });
-                } catch (Exception e) {
-                    Log.e("Budgets", "Load error", e);
-                    requireActivity().runOnUiThread(() ->
-                            Toast.makeText(requireContext(), "Load failed", Toast.LENGTH_SHORT).show());
-                }
-            });
-        }
-
-
-    @Override
-    public void onDestroy() {
-        super.onDestroy();
-        if (executor != null) {
-            executor.shutdown();
-        }
-    }
-}
\ No newline at end of file
+}
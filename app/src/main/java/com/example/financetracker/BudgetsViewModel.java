@@ -0,0 +1,86 @@
+package com.example.financetracker;
+
+import android.app.Application;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Observer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Activity-scoped budget rows, kept current by observing the budgets table
+public class BudgetsViewModel extends AndroidViewModel {
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    private final RowPresenter presenter;
+    private final LiveData<List<Budget>> source;
+    private final Observer<List<Budget>> sourceObserver = this::present;
+    private final MutableLiveData<List<BudgetRow>> budgets = new MutableLiveData<>();
+    private final Set<Integer> hiddenIds = new HashSet<>();
+    private int generation;
+
+    public BudgetsViewModel(@NonNull Application application) {
+        super(application);
+        presenter = new RowPresenter(application);
+        source = AppDatabase.getInstance(application).budgetDao().observeAllBudgets();
+        source.observeForever(sourceObserver);
+    }
+
+    public LiveData<List<BudgetRow>> getBudgets() {
+        return budgets;
+    }
+
+    private void present(List<Budget> latest) {
+        if (latest == null) {
+            return;
+        }
+        int requested = ++generation;
+        Set<Integer> hidden = new HashSet<>(hiddenIds);
+        AppExecutors.getReadExecutor().execute(() -> {
+            List<Budget> visible = new ArrayList<>(latest.size());
+            for (Budget budget : latest) {
+                if (!hidden.contains(budget.id)) {
+                    visible.add(budget);
+                }
+            }
+            List<BudgetRow> rows = presenter.presentBudgets(visible);
+            // Re-checked on the main thread so an older result cannot land after a newer one
+            MAIN_HANDLER.post(() -> {
+                if (requested == generation) {
+                    budgets.setValue(rows);
+                }
+            });
+        });
+    }
+
+    public void hide(int budgetId) {
+        hiddenIds.add(budgetId);
+        present(source.getValue());
+    }
+
+    public void restore(Collection<Budget> restored) {
+        for (Budget budget : restored) {
+            hiddenIds.remove(budget.id);
+        }
+        present(source.getValue());
+    }
+
+    public void forget(Collection<Budget> deleted) {
+        for (Budget budget : deleted) {
+            hiddenIds.remove(budget.id);
+        }
+    }
+
+    @Override
+    protected void onCleared() {
+        source.removeObserver(sourceObserver);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.financetracker;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+// Running expense statistics per category, see AnomalyDetector
+@Entity(tableName = "category_stats")
+public class CategoryStats {
+    @PrimaryKey
+    @NonNull
+    public String category = "";
+
+    @ColumnInfo(name = "sample_count")
+    public int sampleCount;
+
+    // Welford running mean and sum of squared deviations
+    public double mean;
+    public double m2;
+
+    // Streaming estimates of the median and median absolute deviation
+    public double median;
+    public double mad;
+
+    // Set when a delete or edit left the median/MAD sketch behind the
+    // ledger; read stats through AppDatabase.getCategoryStats
+    @ColumnInfo(name = "stale", defaultValue = "0")
+    public boolean stale;
+}
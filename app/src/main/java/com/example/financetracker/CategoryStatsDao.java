@@ -0,0 +1,22 @@
+package com.example.financetracker;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+@Dao
+public interface CategoryStatsDao {
+    String BY_CATEGORY = "SELECT * FROM category_stats WHERE category = :category";
+
+    @Query(BY_CATEGORY)
+    CategoryStats get(String category);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(CategoryStats stats);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertAll(List<CategoryStats> stats);
+}
@@ -0,0 +1,7 @@
+package com.example.financetracker;
+
+// Row shape for aggregate queries that group by category
+public class CategoryTotal {
+    public String category;
+    public double total;
+}
@@ -0,0 +1,60 @@
+package com.example.financetracker;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Formatters for list rows. NumberFormat and SimpleDateFormat are not thread
+ * safe, so each thread that builds rows gets its own instances, created once.
+ */
+final class DisplayFormats {
+
+    private static final ThreadLocal<DisplayFormats> LOCAL = new ThreadLocal<DisplayFormats>() {
+        @Override
+        protected DisplayFormats initialValue() {
+            return new DisplayFormats();
+        }
+    };
+
+    private final NumberFormat currency = NumberFormat.getCurrencyInstance(Locale.UK);
+    private final DecimalFormat signedAmount =
+            new DecimalFormat("0.00", DecimalFormatSymbols.getInstance(Locale.UK));
+    private final SimpleDateFormat goalDate = new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault());
+    // Epoch days are whole UTC days, so format them in UTC
+    private final SimpleDateFormat epochDay = new SimpleDateFormat("d MMM", Locale.UK);
+    private final Date date = new Date();
+
+    private DisplayFormats() {
+        signedAmount.setPositivePrefix("+");
+        signedAmount.setNegativePrefix("");
+        epochDay.setTimeZone(TimeZone.getTimeZone("UTC"));
+    }
+
+    static DisplayFormats get() {
+        return LOCAL.get();
+    }
+
+    String currency(double amount) {
+        return currency.format(amount);
+    }
+
+    // "+12.50" for income, "12.50" for expenses; colour carries the sign
+    String signedAmount(double amount) {
+        return signedAmount.format(amount);
+    }
+
+    String goalDate(long millis) {
+        date.setTime(millis);
+        return goalDate.format(date);
+    }
+
+    String epochDay(int day) {
+        date.setTime(EpochDays.toUtcMillis(day));
+        return epochDay.format(date);
+    }
+}
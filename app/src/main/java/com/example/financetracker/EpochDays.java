@@ -0,0 +1,88 @@
+package com.example.financetracker;
+
+import java.util.Calendar;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Helpers for the transactions.epoch_day column: whole days since 1970-01-01
+ * in the device's local time zone. Period bounds are half-open [from, to).
+ */
+public final class EpochDays {
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+    private static final int EPOCH_DAY_OF_WEEK = 3; // 1970-01-01 was a Thursday (Monday = 0)
+
+    private EpochDays() {
+    }
+
+    public static int fromMillis(long millis) {
+        long local = millis + TimeZone.getDefault().getOffset(millis);
+        return (int) Math.floorDiv(local, MILLIS_PER_DAY);
+    }
+
+    public static int today() {
+        return fromMillis(System.currentTimeMillis());
+    }
+
+    public static long toUtcMillis(int epochDay) {
+        return epochDay * MILLIS_PER_DAY;
+    }
+
+    /**
+     * ISO yyyy-MM-dd for the day, as the importer reads it back. Computed
+     * directly (days-to-civil, eras starting 0000-03-01) because exports
+     * call this once per row.
+     */
+    public static String toIsoDate(int epochDay) {
+        long z = epochDay + 719468L;
+        long era = Math.floorDiv(z, 146097);
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+        int month = (int) (shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9);
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+        if (year < 0 || year > 9999) {
+            return String.format(Locale.ROOT, "%04d-%02d-%02d", year, month, day);
+        }
+        int y = (int) year;
+        return new String(new char[]{
+                digit(y / 1000), digit(y / 100 % 10), digit(y / 10 % 10), digit(y % 10), '-',
+                digit(month / 10), digit(month % 10), '-',
+                digit(day / 10), digit(day % 10)});
+    }
+
+    public static int startOfWeek(int epochDay) {
+        int dayOfWeek = Math.floorMod(epochDay + EPOCH_DAY_OF_WEEK, 7);
+        return epochDay - dayOfWeek;
+    }
+
+    public static int endOfWeek(int epochDay) {
+        return startOfWeek(epochDay) + 7;
+    }
+
+    public static int startOfMonth(int epochDay) {
+        Calendar calendar = utcCalendar(epochDay);
+        calendar.set(Calendar.DAY_OF_MONTH, 1);
+        return (int) (calendar.getTimeInMillis() / MILLIS_PER_DAY);
+    }
+
+    public static int endOfMonth(int epochDay) {
+        Calendar calendar = utcCalendar(epochDay);
+        calendar.set(Calendar.DAY_OF_MONTH, 1);
+        calendar.add(Calendar.MONTH, 1);
+        return (int) (calendar.getTimeInMillis() / MILLIS_PER_DAY);
+    }
+
+    private static char digit(int value) {
+        return (char) ('0' + value);
+    }
+
+    private static Calendar utcCalendar(int epochDay) {
+        Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        calendar.setTimeInMillis(toUtcMillis(epochDay));
+        return calendar;
+    }
+}
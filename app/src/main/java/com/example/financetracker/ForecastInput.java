@@ -0,0 +1,11 @@
+package com.example.financetracker;
+
+// Inputs shared by every Forecaster; each engine reads the fields it needs
+public class ForecastInput {
+    // Recency-weighted transaction amount, see SpendingFeature.ewmaAmount
+    public float weightedAverage;
+
+    // Total expenses per calendar month, oldest first, with gaps filled as 0
+    public double[] monthlyExpenses = new double[0];
+    public int months;
+}
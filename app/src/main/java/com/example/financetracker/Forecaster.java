@@ -0,0 +1,19 @@
+package com.example.financetracker;
+
+import java.util.List;
+
+// A next-month spending forecast engine; see PredictorHolder for selection
+public interface Forecaster {
+    float forecastNextMonth(ForecastInput input);
+
+    // One forecast per input; engines that can run inputs together override this
+    default float[] forecastNextMonth(List<ForecastInput> inputs) {
+        float[] forecasts = new float[inputs.size()];
+        for (int i = 0; i < forecasts.length; i++) {
+            forecasts[i] = forecastNextMonth(inputs.get(i));
+        }
+        return forecasts;
+    }
+
+    void close();
+}
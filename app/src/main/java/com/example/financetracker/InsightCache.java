@@ -0,0 +1,78 @@
+package com.example.financetracker;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.room.InvalidationTracker;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds the last computed insights text together with the data version it was
+ * computed at. Ledger writers bump the version through ledgerChanged() as soon
+ * as they commit; Room's InvalidationTracker, which only notices a write
+ * asynchronously, bumps it again for any writer that does not.
+ */
+public class InsightCache {
+    private static volatile InsightCache INSTANCE;
+
+    private final AtomicLong dataVersion = new AtomicLong();
+    private long cachedVersion = -1;
+    private String cachedInsights;
+
+    private InsightCache(AppDatabase db) {
+        db.getInvalidationTracker().addObserver(new InvalidationTracker.Observer("transactions") {
+            @Override
+            public void onInvalidated(@NonNull Set<String> tables) {
+                invalidate();
+            }
+        });
+    }
+
+    public static InsightCache getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (InsightCache.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new InsightCache(AppDatabase.getInstance(context));
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    // Safe on the main thread: never creates the cache or touches the database
+    public static String peekCurrent() {
+        InsightCache cache = INSTANCE;
+        return cache != null ? cache.get(cache.getVersion()) : null;
+    }
+
+    // Read before computing, and store the result under this version
+    public long getVersion() {
+        return dataVersion.get();
+    }
+
+    public synchronized String get(long version) {
+        return cachedVersion == version ? cachedInsights : null;
+    }
+
+    public synchronized void put(long version, String insights) {
+        // A write may have landed while computing; only keep results that are still current
+        if (version == dataVersion.get()) {
+            cachedVersion = version;
+            cachedInsights = insights;
+        }
+    }
+
+    public void invalidate() {
+        dataVersion.incrementAndGet();
+    }
+
+    // Call right after a transactions write commits, on the writing thread
+    public static void ledgerChanged() {
+        InsightCache cache = INSTANCE;
+        if (cache != null) {
+            cache.invalidate();
+        }
+    }
+}
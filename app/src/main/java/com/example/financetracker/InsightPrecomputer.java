@@ -0,0 +1,88 @@
+package com.example.financetracker;
+
+import android.content.Context;
+import android.os.Process;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.room.InvalidationTracker;
+
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recomputes insights and forecasts in the background after transaction
+ * writes, so the insights dialog normally opens on a warm InsightCache.
+ * Bursts such as statement imports are debounced into a single run.
+ */
+public class InsightPrecomputer {
+    private static final String TAG = "InsightPrecomputer";
+    private static final long DEBOUNCE_MS = 2000;
+
+    private static volatile InsightPrecomputer INSTANCE;
+
+    private final Context appContext;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(() -> {
+            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+            r.run();
+        }, TAG);
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ScheduledFuture<?> scheduled;
+    private boolean started = false;
+
+    private InsightPrecomputer(Context context) {
+        appContext = context.getApplicationContext();
+    }
+
+    public static InsightPrecomputer getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (InsightPrecomputer.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new InsightPrecomputer(context);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    // Idempotent; starts watching for writes and schedules an initial run.
+    // Registering observers touches the database, so call off the main thread.
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+
+        InsightCache.getInstance(appContext);
+        AppDatabase.getInstance(appContext).getInvalidationTracker()
+                .addObserver(new InvalidationTracker.Observer("transactions") {
+                    @Override
+                    public void onInvalidated(@NonNull Set<String> tables) {
+                        schedule();
+                    }
+                });
+        PredictorHolder.getInstance(appContext).warmUp();
+        schedule();
+    }
+
+    public synchronized void schedule() {
+        if (scheduled != null) {
+            scheduled.cancel(false);
+        }
+        scheduled = scheduler.schedule(this::precompute, DEBOUNCE_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private void precompute() {
+        try {
+            new SpendingAnalyzer(appContext).analyze();
+        } catch (Exception e) {
+            Log.e(TAG, "Error precomputing insights", e);
+        }
+    }
+}
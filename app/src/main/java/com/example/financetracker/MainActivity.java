@@ -7,12 +7,21 @@ import android.widget.Button;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.fragment.app.Fragment;
+import androidx.fragment.app.FragmentManager;
 import androidx.fragment.app.FragmentTransaction;
 
 public class MainActivity extends AppCompatActivity {
+    private static final String TAB_TRANSACTIONS = "tab_transactions";
+    private static final String TAB_BUDGETS = "tab_budgets";
+    private static final String TAB_SAVINGS = "tab_savings";
+    private static final String[] TABS = {TAB_TRANSACTIONS, TAB_BUDGETS, TAB_SAVINGS};
+    private static final String STATE_CURRENT_TAB = "current_tab";
+
+    private String currentTab = TAB_TRANSACTIONS;
     private Button btnTransactions, btnBudgets, btnSavings, btnLogout;
     private TextView tvWelcome;
     private AppDatabase db;
@@ -28,7 +37,7 @@ public class MainActivity extends AppCompatActivity {
         initializeComponents();
         setupUI();
         setupListeners();
-        loadInitialFragment();
+        loadInitialFragment(savedInstanceState);
     }
 
     private void initializeComponents() {
@@ -50,44 +59,75 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void setupListeners() {
-        btnTransactions.setOnClickListener(v ->
-                loadFragment(new TransactionsFragment(), true)
-        );
-
-        btnBudgets.setOnClickListener(v ->
-                loadFragment(new BudgetsFragment(), false)
-        );
-
-        btnSavings.setOnClickListener(v ->
-                loadFragment(new SavingsGoalsFragment(), false)
-        );
+        btnTransactions.setOnClickListener(v -> showTab(TAB_TRANSACTIONS));
+        btnBudgets.setOnClickListener(v -> showTab(TAB_BUDGETS));
+        btnSavings.setOnClickListener(v -> showTab(TAB_SAVINGS));
 
         btnLogout.setOnClickListener(v -> showLogoutConfirmation());
     }
 
-    private void loadInitialFragment() {
-        loadFragment(new TransactionsFragment(), true);
+    private void loadInitialFragment(Bundle savedInstanceState) {
+        if (savedInstanceState != null) {
+            // The fragment manager has already restored the tabs and their hidden state
+            currentTab = savedInstanceState.getString(STATE_CURRENT_TAB, TAB_TRANSACTIONS);
+            updateTabButtons(currentTab);
+        } else {
+            showTab(TAB_TRANSACTIONS);
+        }
+    }
+
+    @Override
+    protected void onSaveInstanceState(@NonNull Bundle outState) {
+        super.onSaveInstanceState(outState);
+        outState.putString(STATE_CURRENT_TAB, currentTab);
     }
 
-    private void loadFragment(Fragment fragment, boolean isTransaction) {
+    // Tabs are created once and then shown or hidden, so their views and
+    // view models stay alive and a switch does not go back to the database
+    private void showTab(String tag) {
         try {
-            FragmentTransaction transaction = getSupportFragmentManager().beginTransaction();
-            transaction.replace(R.id.fragment_container, fragment);
+            FragmentManager fragmentManager = getSupportFragmentManager();
+            FragmentTransaction transaction = fragmentManager.beginTransaction();
+            for (String other : TABS) {
+                Fragment fragment = fragmentManager.findFragmentByTag(other);
+                if (fragment != null && !other.equals(tag)) {
+                    transaction.hide(fragment);
+                }
+            }
+
+            Fragment target = fragmentManager.findFragmentByTag(tag);
+            if (target == null) {
+                transaction.add(R.id.fragment_container, createTab(tag), tag);
+            } else {
+                transaction.show(target);
+            }
             transaction.commit();
 
-            updateTabButtons(fragment, isTransaction);
+            currentTab = tag;
+            updateTabButtons(tag);
         } catch (Exception e) {
             Toast.makeText(this, "Error loading fragment", Toast.LENGTH_SHORT).show();
         }
     }
 
-    private void updateTabButtons(Fragment fragment, boolean isTransaction) {
+    private Fragment createTab(String tag) {
+        switch (tag) {
+            case TAB_BUDGETS:
+                return new BudgetsFragment();
+            case TAB_SAVINGS:
+                return new SavingsGoalsFragment();
+            default:
+                return new TransactionsFragment();
+        }
+    }
+
+    private void updateTabButtons(String tag) {
         btnTransactions.setBackgroundResource(
-                isTransaction ? R.drawable.tab_selected_bg : R.drawable.tab_unselected_bg);
+                TAB_TRANSACTIONS.equals(tag) ? R.drawable.tab_selected_bg : R.drawable.tab_unselected_bg);
         btnBudgets.setBackgroundResource(
-                fragment instanceof BudgetsFragment ? R.drawable.tab_selected_bg : R.drawable.tab_unselected_bg);
+                TAB_BUDGETS.equals(tag) ? R.drawable.tab_selected_bg : R.drawable.tab_unselected_bg);
         btnSavings.setBackgroundResource(
-                fragment instanceof SavingsGoalsFragment ? R.drawable.tab_selected_bg : R.drawable.tab_unselected_bg);
+                TAB_SAVINGS.equals(tag) ? R.drawable.tab_selected_bg : R.drawable.tab_unselected_bg);
     }
 
     private void showLogoutConfirmation() {
@@ -141,7 +181,8 @@ public class MainActivity extends AppCompatActivity {
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        if (db != null) {
+        // The database and the view models outlive a configuration change
+        if (db != null && isFinishing()) {
             db.close();
         }
     }
@@ -0,0 +1,7 @@
+package com.example.financetracker;
+
+// Row shape for aggregate queries that group by month
+public class MonthTotal {
+    public int month;
+    public double total;
+}
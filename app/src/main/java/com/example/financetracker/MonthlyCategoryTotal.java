@@ -0,0 +1,26 @@
+package com.example.financetracker;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+
+// One row per (month, category); kept current by triggers in AppDatabase
+@Entity(tableName = "monthly_category_totals", primaryKeys = {"month", "category"},
+        indices = {@Index(value = {"category", "month"})})
+public class MonthlyCategoryTotal {
+    // Calendar month as yyyyMM, e.g. 202403
+    public int month;
+
+    @NonNull
+    public String category = "";
+
+    @ColumnInfo(name = "expense_total")
+    public double expenseTotal;
+
+    @ColumnInfo(name = "income_total")
+    public double incomeTotal;
+
+    @ColumnInfo(name = "transaction_count")
+    public int transactionCount;
+}
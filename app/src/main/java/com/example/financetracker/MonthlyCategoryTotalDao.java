@@ -0,0 +1,55 @@
+package com.example.financetracker;
+
+import androidx.room.Dao;
+import androidx.room.Query;
+
+import java.util.List;
+
+@Dao
+public interface MonthlyCategoryTotalDao {
+    String FOR_MONTH =
+            "SELECT * FROM monthly_category_totals WHERE month = :month ORDER BY expense_total DESC";
+    String BETWEEN_MONTHS =
+            "SELECT * FROM monthly_category_totals WHERE month >= :fromMonth AND month <= :toMonth " +
+                    "ORDER BY month, category";
+    String FOR_CATEGORY =
+            "SELECT * FROM monthly_category_totals WHERE category = :category ORDER BY month";
+    String EXPENSE_TOTAL_FOR_MONTH =
+            "SELECT IFNULL(SUM(expense_total), 0) FROM monthly_category_totals WHERE month = :month";
+    String TOP_EXPENSE_CATEGORIES =
+            "SELECT category, SUM(expense_total) AS total FROM monthly_category_totals " +
+                    "GROUP BY category HAVING total > 0 ORDER BY total DESC LIMIT :limit";
+    String RECENT_MONTHLY_EXPENSES =
+            "SELECT month, SUM(expense_total) AS total FROM monthly_category_totals " +
+                    "GROUP BY month ORDER BY month DESC LIMIT :limit";
+    String RECENT_MONTHLY_EXPENSES_FOR_CATEGORY =
+            "SELECT month, expense_total AS total FROM monthly_category_totals " +
+                    "WHERE category = :category ORDER BY month DESC LIMIT :limit";
+
+    @Query(FOR_MONTH)
+    List<MonthlyCategoryTotal> getForMonth(int month);
+
+    @Query(BETWEEN_MONTHS)
+    List<MonthlyCategoryTotal> getBetweenMonths(int fromMonth, int toMonth);
+
+    @Query(FOR_CATEGORY)
+    List<MonthlyCategoryTotal> getForCategory(String category);
+
+    @Query(EXPENSE_TOTAL_FOR_MONTH)
+    double getExpenseTotalForMonth(int month);
+
+    @Query(TOP_EXPENSE_CATEGORIES)
+    List<CategoryTotal> getTopExpenseCategories(int limit);
+
+    @Query(RECENT_MONTHLY_EXPENSES)
+    List<MonthTotal> getRecentMonthlyExpenses(int limit);
+
+    @Query(RECENT_MONTHLY_EXPENSES_FOR_CATEGORY)
+    List<MonthTotal> getRecentMonthlyExpenses(String category, int limit);
+
+    @Query("DELETE FROM monthly_category_totals")
+    void deleteAll();
+
+    @Query(AppDatabase.MONTHLY_TOTALS_FROM_LEDGER_SQL)
+    void insertFromLedger();
+}
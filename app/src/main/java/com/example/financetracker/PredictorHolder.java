@@ -0,0 +1,136 @@
+package com.example.financetracker;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.content.res.Configuration;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Process-wide owner of the active Forecaster. The TFLite model is mapped and
+ * the interpreters built once, in the background, and reused by every
+ * analysis until the system asks the app to trim memory. The engine is chosen
+ * by the "engine" preference; if the model cannot load, the pure-Java
+ * TrendForecaster is used instead.
+ */
+public class PredictorHolder implements ComponentCallbacks2 {
+    private static final String TAG = "PredictorHolder";
+    private static final String PREF_NAME = "ForecastPrefs";
+    private static final String KEY_ENGINE = "engine";
+    public static final String ENGINE_TFLITE = "tflite";
+    public static final String ENGINE_TREND = "trend";
+
+    private static volatile PredictorHolder INSTANCE;
+
+    private final Context appContext;
+    private final SharedPreferences preferences;
+    private final ExecutorService loader = Executors.newSingleThreadExecutor();
+    private final Forecaster fallback = new TrendForecaster();
+    private Future<Forecaster> pending;
+
+    private PredictorHolder(Context context) {
+        appContext = context.getApplicationContext();
+        preferences = appContext.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        appContext.registerComponentCallbacks(this);
+    }
+
+    public static PredictorHolder getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (PredictorHolder.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new PredictorHolder(context);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    public String getEngine() {
+        return preferences.getString(KEY_ENGINE, ENGINE_TFLITE);
+    }
+
+    public void setEngine(String engine) {
+        preferences.edit().putString(KEY_ENGINE, engine).apply();
+        release();
+        InsightCache.getInstance(appContext).invalidate();
+    }
+
+    // Starts loading the configured engine in the background if not loaded already
+    public synchronized void warmUp() {
+        if (pending == null) {
+            boolean useModel = ENGINE_TFLITE.equals(getEngine());
+            pending = loader.submit(() -> useModel ? new SpendingPredictor(appContext) : fallback);
+        }
+    }
+
+    /**
+     * Returns the shared forecaster, waiting for a load in progress. Falls back
+     * to the trend forecaster when the model cannot be loaded. Do not call
+     * from the main thread.
+     */
+    public Forecaster get() {
+        Future<Forecaster> future;
+        synchronized (this) {
+            warmUp();
+            future = pending;
+        }
+
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Log.e(TAG, "Failed to load spending model, using trend forecaster", e.getCause());
+            synchronized (this) {
+                if (pending == future) {
+                    pending = null;
+                }
+            }
+            return fallback;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return fallback;
+        }
+    }
+
+    public void release() {
+        Future<Forecaster> released;
+        synchronized (this) {
+            released = pending;
+            pending = null;
+        }
+        if (released == null) {
+            return;
+        }
+
+        // Close once any in-flight load has finished, off the calling thread
+        loader.execute(() -> {
+            try {
+                released.get().close();
+                Log.d(TAG, "Released forecaster");
+            } catch (ExecutionException | InterruptedException ignored) {
+            }
+        });
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        if (level >= TRIM_MEMORY_RUNNING_LOW) {
+            release();
+        }
+    }
+
+    @Override
+    public void onLowMemory() {
+        release();
+    }
+
+    @Override
+    public void onConfigurationChanged(@NonNull Configuration newConfig) {
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.financetracker;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Groups transactions by a hash key of normalized title and amount bucket,
+ * and tracks the gaps between occurrences so weekly, monthly and annual
+ * series can be recognised despite a few days of date jitter. Each update
+ * is O(1); nothing rescans history.
+ */
+public final class RecurrenceDetector {
+    static final int MIN_OCCURRENCES = 3;
+    // Amounts within roughly 10% of each other share a bucket
+    private static final double BUCKET_BASE = Math.log(1.1);
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N} ]");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private RecurrenceDetector() {
+    }
+
+    public static String keyFor(String title, double amount) {
+        String normalized = "";
+        if (title != null) {
+            String words = NON_WORD.matcher(title.toLowerCase(Locale.ROOT)).replaceAll(" ");
+            normalized = WHITESPACE.matcher(words).replaceAll(" ").trim();
+        }
+        return normalized + '|' + (amount < 0 ? '-' : '+') + bucket(amount);
+    }
+
+    // Signed amounts that can share this amount's bucket, padded against
+    // rounding at the edges; callers still compare keys on what it matches
+    static double[] bucketRange(double amount) {
+        long bucket = bucket(amount);
+        double low = Math.exp((bucket - 0.5) * BUCKET_BASE) * 0.999;
+        double high = Math.exp((bucket + 0.5) * BUCKET_BASE) * 1.001;
+        if (low <= 0.01) {
+            low = 0;
+        }
+        return amount < 0 ? new double[]{-high, -low} : new double[]{low, high};
+    }
+
+    private static long bucket(double amount) {
+        return Math.round(Math.log(Math.max(Math.abs(amount), 0.01)) / BUCKET_BASE);
+    }
+
+    public static RecurringSeries newSeries(String key, Transaction transaction) {
+        RecurringSeries series = new RecurringSeries();
+        series.seriesKey = key;
+        series.title = transaction.title;
+        series.category = transaction.category;
+        return series;
+    }
+
+    // Rows arriving out of date order only count toward the amount, not the intervals
+    public static void update(RecurringSeries series, double amount, int epochDay) {
+        series.occurrences++;
+        series.typicalAmount += (amount - series.typicalAmount) / series.occurrences;
+
+        if (series.occurrences > 1 && epochDay > series.lastEpochDay) {
+            double gap = epochDay - series.lastEpochDay;
+            series.intervalCount++;
+            double delta = gap - series.intervalMean;
+            series.intervalMean += delta / series.intervalCount;
+            series.intervalM2 += delta * (gap - series.intervalMean);
+        }
+        series.lastEpochDay = Math.max(series.lastEpochDay, epochDay);
+        classify(series);
+    }
+
+    static void classify(RecurringSeries series) {
+        series.period = null;
+        if (series.occurrences < MIN_OCCURRENCES || series.intervalCount < MIN_OCCURRENCES - 1) {
+            return;
+        }
+
+        double mean = series.intervalMean;
+        double deviation = Math.sqrt(series.intervalM2 / series.intervalCount);
+        if (Math.abs(mean - 7) <= 1.5 && deviation <= 1.5) {
+            series.period = RecurringSeries.WEEKLY;
+        } else if (Math.abs(mean - 30.4) <= 3.5 && deviation <= 3.5) {
+            series.period = RecurringSeries.MONTHLY;
+        } else if (Math.abs(mean - 365.25) <= 10 && deviation <= 10) {
+            series.period = RecurringSeries.ANNUAL;
+        }
+
+        if (series.period != null) {
+            series.nextEpochDay = series.lastEpochDay + (int) Math.round(mean);
+        }
+    }
+}
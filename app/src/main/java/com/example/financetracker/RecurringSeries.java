@@ -0,0 +1,47 @@
+package com.example.financetracker;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+// Running interval statistics per (normalized title, amount bucket); see RecurrenceDetector
+@Entity(tableName = "recurring_series", indices = {@Index(value = {"period", "next_epoch_day"})})
+public class RecurringSeries {
+    public static final String WEEKLY = "WEEKLY";
+    public static final String MONTHLY = "MONTHLY";
+    public static final String ANNUAL = "ANNUAL";
+
+    @PrimaryKey
+    @NonNull
+    @ColumnInfo(name = "series_key")
+    public String seriesKey = "";
+
+    public String title;
+    public String category;
+
+    @ColumnInfo(name = "typical_amount")
+    public double typicalAmount;
+
+    public int occurrences;
+
+    @ColumnInfo(name = "last_epoch_day")
+    public int lastEpochDay;
+
+    // Welford statistics over the gaps, in days, between occurrences
+    @ColumnInfo(name = "interval_count")
+    public int intervalCount;
+
+    @ColumnInfo(name = "interval_mean")
+    public double intervalMean;
+
+    @ColumnInfo(name = "interval_m2")
+    public double intervalM2;
+
+    // WEEKLY, MONTHLY or ANNUAL once detected, otherwise null
+    public String period;
+
+    @ColumnInfo(name = "next_epoch_day")
+    public int nextEpochDay;
+}
@@ -0,0 +1,37 @@
+package com.example.financetracker;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+@Dao
+public interface RecurringSeriesDao {
+    String BY_KEY = "SELECT * FROM recurring_series WHERE series_key = :key";
+    String DETECTED =
+            "SELECT * FROM recurring_series WHERE period IS NOT NULL ORDER BY next_epoch_day";
+    String DUE_BETWEEN =
+            "SELECT * FROM recurring_series WHERE period IS NOT NULL " +
+                    "AND next_epoch_day >= :fromDay AND next_epoch_day < :toDay ORDER BY next_epoch_day";
+    String DELETE_BY_KEY = "DELETE FROM recurring_series WHERE series_key = :key";
+
+    @Query(BY_KEY)
+    RecurringSeries get(String key);
+
+    @Query(DETECTED)
+    List<RecurringSeries> getDetected();
+
+    @Query(DUE_BETWEEN)
+    List<RecurringSeries> getDueBetween(int fromDay, int toDay);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(RecurringSeries series);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertAll(List<RecurringSeries> series);
+
+    @Query(DELETE_BY_KEY)
+    void delete(String key);
+}
@@ -0,0 +1,90 @@
+package com.example.financetracker;
+
+import android.content.Context;
+import android.content.res.ColorStateList;
+
+import androidx.core.content.ContextCompat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns entities into display rows on whichever background thread loaded
+ * them, so adapters only copy prepared strings and colours into views.
+ */
+public class RowPresenter {
+    private final int incomeColor;
+    private final int expenseColor;
+    private final ColorStateList progressGreen;
+    private final ColorStateList progressYellow;
+    private final ColorStateList progressRed;
+
+    public RowPresenter(Context context) {
+        Context appContext = context.getApplicationContext();
+        incomeColor = ContextCompat.getColor(appContext, R.color.income_green);
+        expenseColor = ContextCompat.getColor(appContext, R.color.expense_red);
+        progressGreen = ColorStateList.valueOf(ContextCompat.getColor(appContext, R.color.progress_green));
+        progressYellow = ColorStateList.valueOf(ContextCompat.getColor(appContext, R.color.progress_yellow));
+        progressRed = ColorStateList.valueOf(ContextCompat.getColor(appContext, R.color.progress_red));
+    }
+
+    public TransactionRow present(Transaction transaction) {
+        return new TransactionRow(transaction,
+                DisplayFormats.get().signedAmount(transaction.amount),
+                transaction.amount >= 0 ? incomeColor : expenseColor);
+    }
+
+    public List<TransactionRow> presentTransactions(List<Transaction> transactions) {
+        List<TransactionRow> rows = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            rows.add(present(transaction));
+        }
+        return rows;
+    }
+
+    public List<BudgetRow> presentBudgets(List<Budget> budgets) {
+        DisplayFormats formats = DisplayFormats.get();
+        int today = EpochDays.today();
+        List<BudgetRow> rows = new ArrayList<>(budgets.size());
+        for (Budget budget : budgets) {
+            double percentage = Math.min((budget.currentSpending / budget.limit) * 100, 100);
+
+            ColorStateList tint;
+            if (percentage < 75) {
+                tint = progressGreen;
+            } else if (percentage < 100) {
+                tint = progressYellow;
+            } else {
+                tint = progressRed;
+            }
+
+            String forecast = null;
+            int exhaustionDay = budget.projectedExhaustionDay(today);
+            if (budget.currentSpending < budget.limit && exhaustionDay >= 0) {
+                forecast = "Runs out around " + formats.epochDay(exhaustionDay);
+            }
+
+            rows.add(new BudgetRow(budget,
+                    "Limit: " + formats.currency(budget.limit),
+                    "Spent: " + formats.currency(budget.currentSpending)
+                            + " (" + Math.round(percentage) + "%)",
+                    (int) percentage, tint, forecast));
+        }
+        return rows;
+    }
+
+    public List<SavingsGoalRow> presentGoals(List<SavingsGoal> goals) {
+        DisplayFormats formats = DisplayFormats.get();
+        List<SavingsGoalRow> rows = new ArrayList<>(goals.size());
+        for (SavingsGoal goal : goals) {
+            int progress = goal.targetAmount > 0
+                    ? (int) ((goal.currentAmount / goal.targetAmount) * 100) : 0;
+            rows.add(new SavingsGoalRow(goal,
+                    formats.currency(goal.targetAmount),
+                    formats.currency(goal.currentAmount),
+                    "Target: " + formats.goalDate(goal.targetDate),
+                    progress));
+        }
+        return rows;
+    }
+}
@@ -6,34 +6,42 @@ import android.view.ViewGroup;
 import android.widget.ProgressBar;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
-import java.text.NumberFormat;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
 
 public class SavingsGoalAdapter extends RecyclerView.Adapter<SavingsGoalAdapter.SavingsGoalViewHolder> {
 
-    private List<SavingsGoal> savingsGoals;
+    static final DiffUtil.ItemCallback<SavingsGoalRow> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<SavingsGoalRow>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull SavingsGoalRow a, @NonNull SavingsGoalRow b) {
+                    return a.goal.id == b.goal.id;
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull SavingsGoalRow a, @NonNull SavingsGoalRow b) {
+                    return a.sameContentAs(b);
+                }
+            };
+
+    private final AsyncListDiffer<SavingsGoalRow> differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
     private OnSavingsGoalClickListener listener;
 
     public interface OnSavingsGoalClickListener {
         void onSavingsGoalClick(SavingsGoal goal);
     }
 
-    public SavingsGoalAdapter(List<SavingsGoal> savingsGoals, OnSavingsGoalClickListener listener) {
-        this.savingsGoals = savingsGoals;
+    public SavingsGoalAdapter(List<SavingsGoalRow> rows, OnSavingsGoalClickListener listener) {
         this.listener = listener;
+        setHasStableIds(true);
+        submit(new ArrayList<>(rows));
     }
 
     public SavingsGoal getGoalAtPosition(int position) {
-        return savingsGoals.get(position);
-    }
-
-    public void removeGoalAtPosition(int position) {
-        savingsGoals.remove(position);
-        notifyItemRemoved(position);
+        return differ.getCurrentList().get(position).goal;
     }
 
     @NonNull
@@ -41,24 +49,37 @@ public class SavingsGoalAdapter extends RecyclerView.Adapter<SavingsGoalAdapter.
     public SavingsGoalViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(parent.getContext())
                 .inflate(R.layout.item_savings_goal, parent, false);
-        return new SavingsGoalViewHolder(view);
+        SavingsGoalViewHolder holder = new SavingsGoalViewHolder(view);
+        view.setOnClickListener(v -> {
+            int position = holder.getAdapterPosition();
+            if (position != RecyclerView.NO_POSITION) {
+                listener.onSavingsGoalClick(getGoalAtPosition(position));
+            }
+        });
+        return holder;
     }
 
     @Override
     public void onBindViewHolder(@NonNull SavingsGoalViewHolder holder, int position) {
-        SavingsGoal goal = savingsGoals.get(position);
-        holder.bind(goal);
-        holder.itemView.setOnClickListener(v -> listener.onSavingsGoalClick(goal));
+        holder.bind(differ.getCurrentList().get(position));
     }
 
     @Override
     public int getItemCount() {
-        return savingsGoals.size();
+        return differ.getCurrentList().size();
     }
 
-    public void setSavingsGoals(List<SavingsGoal> goals) {
-        this.savingsGoals = goals;
-        notifyDataSetChanged();
+    @Override
+    public long getItemId(int position) {
+        return differ.getCurrentList().get(position).goal.id;
+    }
+
+    public void setSavingsGoals(List<SavingsGoalRow> rows) {
+        submit(new ArrayList<>(rows));
+    }
+
+    private void submit(List<SavingsGoalRow> list) {
+        differ.submitList(list);
     }
 
     static class SavingsGoalViewHolder extends RecyclerView.ViewHolder {
@@ -77,17 +98,12 @@ public class SavingsGoalAdapter extends RecyclerView.Adapter<SavingsGoalAdapter.
             progressBar = itemView.findViewById(R.id.progressBar);
         }
 
-        public void bind(SavingsGoal goal) {
-            NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(Locale.UK);
-            SimpleDateFormat dateFormat = new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault());
-
-            tvName.setText(goal.name);
-            tvTargetAmount.setText(currencyFormat.format(goal.targetAmount));
-            tvCurrentAmount.setText(currencyFormat.format(goal.currentAmount));
-            tvTargetDate.setText("Target: " + dateFormat.format(new Date(goal.targetDate)));
-
-            int progress = (int) ((goal.currentAmount / goal.targetAmount) * 100);
-            progressBar.setProgress(progress);
+        public void bind(SavingsGoalRow row) {
+            tvName.setText(row.name);
+            tvTargetAmount.setText(row.targetAmountText);
+            tvCurrentAmount.setText(row.currentAmountText);
+            tvTargetDate.setText(row.targetDateText);
+            progressBar.setProgress(row.progress);
         }
     }
-}
\ No newline at end of file
+}
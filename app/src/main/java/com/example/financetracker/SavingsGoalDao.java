@@ -1,5 +1,6 @@
 package com.example.financetracker;
 
+import androidx.lifecycle.LiveData;
 import androidx.room.Dao;
 import androidx.room.Delete;
 import androidx.room.Insert;
@@ -10,21 +11,31 @@ import java.util.List;
 
 @Dao
 public interface SavingsGoalDao {
+    String ALL_BY_TARGET_DATE = "SELECT * FROM savings_goals ORDER BY target_date ASC";
+    String BY_ID = "SELECT * FROM savings_goals WHERE id = :id";
+    String DELETE_BY_ID = "DELETE FROM savings_goals WHERE id = :id";
+
     @Insert
     void insert(SavingsGoal goal);
 
     @Update
     void update(SavingsGoal goal);
 
-    @Query("DELETE FROM savings_goals WHERE id = :id")
+    @Query(DELETE_BY_ID)
     void delete(int id);
 
-    @Query("SELECT * FROM savings_goals ORDER BY target_date ASC")
+    @Query(ALL_BY_TARGET_DATE)
     List<SavingsGoal> getAllGoals();
 
-    @Query("SELECT * FROM savings_goals WHERE id = :id")
+    @Query(ALL_BY_TARGET_DATE)
+    LiveData<List<SavingsGoal>> observeAllGoals();
+
+    @Query(BY_ID)
     SavingsGoal getGoalById(int id);
 
     @Delete
     void delete(SavingsGoal goal);
+
+    @Delete
+    void delete(List<SavingsGoal> goals);
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.example.financetracker;
+
+import androidx.annotation.NonNull;
+
+import java.util.Objects;
+
+// Display-ready savings goal, built off the main thread by RowPresenter
+public final class SavingsGoalRow {
+    public final SavingsGoal goal;
+    public final String name;
+    public final String targetAmountText;
+    public final String currentAmountText;
+    public final String targetDateText;
+    public final int progress;
+
+    SavingsGoalRow(@NonNull SavingsGoal goal, String targetAmountText, String currentAmountText,
+                   String targetDateText, int progress) {
+        this.goal = goal;
+        this.name = goal.name;
+        this.targetAmountText = targetAmountText;
+        this.currentAmountText = currentAmountText;
+        this.targetDateText = targetDateText;
+        this.progress = progress;
+    }
+
+    boolean sameContentAs(SavingsGoalRow other) {
+        return progress == other.progress
+                && Objects.equals(name, other.name)
+                && Objects.equals(targetAmountText, other.targetAmountText)
+                && Objects.equals(currentAmountText, other.currentAmountText)
+                && Objects.equals(targetDateText, other.targetDateText);
+    }
+}
@@ -1,11 +1,7 @@
 package com.example.financetracker;
 
-import android.app.Activity;
 import android.content.Intent;
-import android.graphics.Canvas;
-import android.graphics.Paint;
 import android.os.Bundle;
-import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -15,9 +11,8 @@ import android.widget.Toast;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
-import androidx.core.content.ContextCompat;
 import androidx.fragment.app.Fragment;
-import androidx.recyclerview.widget.ItemTouchHelper;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
@@ -26,26 +21,19 @@ import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class SavingsGoalsFragment extends Fragment implements SavingsGoalAdapter.OnSavingsGoalClickListener {
 
-    private static final int REQUEST_ADD_GOAL = 1;
-    private static final int REQUEST_EDIT_GOAL = 2;
-
     private RecyclerView recyclerView;
     private SavingsGoalAdapter adapter;
-    private AppDatabase db;
-    private ExecutorService executor;
+    private SwipeToDeleteHelper<SavingsGoal> swipeHelper;
+    private SavingsGoalsViewModel viewModel;
     private TextView tvEmptyState;
 
     private ExtendedFloatingActionButton fabAddGoal;
 
     private ProgressBar progressTotalSavings;
     private TextView tvTotalSavings;
-    private double totalSaved = 0;
-    private double totalTarget = 0;
 
 
     @Nullable
@@ -61,8 +49,7 @@ public class SavingsGoalsFragment extends Fragment implements SavingsGoalAdapter
         tvEmptyState = view.findViewById(R.id.tvEmptyState);
         fabAddGoal = (ExtendedFloatingActionButton) view.findViewById(R.id.fabAddGoal);
 
-        db = AppDatabase.getInstance(requireContext());
-        executor = Executors.newSingleThreadExecutor();
+        viewModel = new ViewModelProvider(requireActivity()).get(SavingsGoalsViewModel.class);
 
         recyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
         adapter = new SavingsGoalAdapter(new ArrayList<>(), this);
@@ -70,71 +57,70 @@ public class SavingsGoalsFragment extends Fragment implements SavingsGoalAdapter
 
         fabAddGoal.setOnClickListener(v -> {
             Intent intent = new Intent(getActivity(), AddSavingsGoalActivity.class);
-            startActivityForResult(intent, REQUEST_ADD_GOAL);
+            startActivity(intent);
         });
 
-        loadGoals();
+        viewModel.getGoals().observe(getViewLifecycleOwner(), state -> {
+            adapter.setSavingsGoals(state.rows);
+            updateEmptyState(state.rows.isEmpty());
+            updateTotalProgress(state.totalSaved, state.totalTarget);
+        });
         setupSwipeToDelete();
 
         return view;
     }
 
     private void setupSwipeToDelete() {
-        new ItemTouchHelper(new ItemTouchHelper.SimpleCallback(0,
-                ItemTouchHelper.LEFT | ItemTouchHelper.RIGHT) {
-
-            @Override
-            public boolean onMove(@NonNull RecyclerView recyclerView,
-                                  @NonNull RecyclerView.ViewHolder viewHolder,
-                                  @NonNull RecyclerView.ViewHolder target) {
-                return false;
-            }
-
-            @Override
-            public void onSwiped(@NonNull RecyclerView.ViewHolder viewHolder, int direction) {
-                int position = viewHolder.getAdapterPosition();
-                SavingsGoal goal = adapter.getGoalAtPosition(position);
-                deleteGoal(goal, position);
-            }
-
-            @Override
-            public void onChildDraw(@NonNull Canvas c, @NonNull RecyclerView recyclerView,
-                                    @NonNull RecyclerView.ViewHolder viewHolder,
-                                    float dX, float dY, int actionState, boolean isCurrentlyActive) {
-                View itemView = viewHolder.itemView;
-                Paint paint = new Paint();
-                paint.setColor(ContextCompat.getColor(requireContext(), R.color.delete_red));
-
-                if (dX > 0) {
-                    c.drawRect((float) itemView.getLeft(), (float) itemView.getTop(), dX,
-                            (float) itemView.getBottom(), paint);
-                } else {
-                    c.drawRect((float) itemView.getRight() + dX, (float) itemView.getTop(),
-                            (float) itemView.getRight(), (float) itemView.getBottom(), paint);
-                }
-
-                super.onChildDraw(c, recyclerView, viewHolder, dX, dY, actionState, isCurrentlyActive);
-            }
-        }).attachToRecyclerView(recyclerView);
+        swipeHelper = new SwipeToDeleteHelper<>(requireContext(), recyclerView, "Goal",
+                new SwipeToDeleteHelper.Host<SavingsGoal>() {
+                    @Override
+                    public SavingsGoal itemAt(int position) {
+                        return adapter.getGoalAtPosition(position);
+                    }
+
+                    @Override
+                    public void hide(SavingsGoal goal) {
+                        viewModel.hide(goal.id);
+                    }
+
+                    @Override
+                    public void restore(List<SavingsGoal> goals) {
+                        viewModel.restore(goals);
+                    }
+
+                    @Override
+                    public void deleteAll(AppDatabase db, List<SavingsGoal> goals) {
+                        db.savingsGoalDao().delete(goals);
+                    }
+
+                    @Override
+                    public void onDeleteFinished(List<SavingsGoal> goals, boolean success) {
+                        if (success) {
+                            viewModel.forget(goals);
+                            return;
+                        }
+                        viewModel.restore(goals);
+                        if (isAdded()) {
+                            Toast.makeText(requireContext(), "Failed to delete goal", Toast.LENGTH_SHORT).show();
+                        }
+                    }
+                });
     }
 
-    private void deleteGoal(SavingsGoal goal, int position) {
-        executor.execute(() -> {
-            try {
-                db.savingsGoalDao().delete(goal);
-                requireActivity().runOnUiThread(() -> {
-                    adapter.removeGoalAtPosition(position);
-                    Toast.makeText(requireContext(), "Goal deleted", Toast.LENGTH_SHORT).show();
-                    updateEmptyState(adapter.getItemCount() == 0);
-                });
-            } catch (Exception e) {
-                Log.e("SavingsGoalsFragment", "Error deleting goal", e);
-                requireActivity().runOnUiThread(() -> {
-                    adapter.notifyItemChanged(position);
-                    Toast.makeText(requireContext(), "Failed to delete goal", Toast.LENGTH_SHORT).show();
-                });
-            }
-        });
+    @Override
+    public void onStop() {
+        super.onStop();
+        if (swipeHelper != null) {
+            swipeHelper.flush();
+        }
+    }
+
+    @Override
+    public void onHiddenChanged(boolean hidden) {
+        super.onHiddenChanged(hidden);
+        if (hidden && swipeHelper != null) {
+            swipeHelper.flush();
+        }
     }
 
     @Override
@@ -142,32 +128,10 @@ public class SavingsGoalsFragment extends Fragment implements SavingsGoalAdapter
         Intent intent = new Intent(getActivity(), AddSavingsGoalActivity.class);
         intent.putExtra("EDIT_MODE", true);
         intent.putExtra("GOAL_ID", goal.id);
-        startActivityForResult(intent, REQUEST_EDIT_GOAL);
-    }
-
-    private void loadGoals() {
-        executor.execute(() -> {
-            List<SavingsGoal> goals = db.savingsGoalDao().getAllGoals();
-
-
-            totalSaved = 0;
-            totalTarget = 0;
-            for (SavingsGoal goal : goals) {
-                totalSaved += goal.currentAmount;
-                totalTarget += goal.targetAmount;
-            }
-
-            requireActivity().runOnUiThread(() -> {
-                adapter.setSavingsGoals(goals);
-                updateEmptyState(goals.isEmpty());
-
-
-                updateTotalProgress();
-            });
-        });
+        startActivity(intent);
     }
 
-    private void updateTotalProgress() {
+    private void updateTotalProgress(double totalSaved, double totalTarget) {
         if (totalTarget > 0) {
             int progress = (int) ((totalSaved / totalTarget) * 100);
             double percentage = (totalSaved / totalTarget) * 100;
@@ -192,20 +156,4 @@ public class SavingsGoalsFragment extends Fragment implements SavingsGoalAdapter
             recyclerView.setVisibility(View.VISIBLE);
         }
     }
-
-    @Override
-    public void onActivityResult(int requestCode, int resultCode, @Nullable Intent data) {
-        super.onActivityResult(requestCode, resultCode, data);
-        if (resultCode == Activity.RESULT_OK) {
-            loadGoals();
-        }
-    }
-
-    @Override
-    public void onDestroy() {
-        super.onDestroy();
-        if (executor != null) {
-            executor.shutdown();
-        }
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,105 @@
+package com.example.financetracker;
+
+import android.app.Application;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Observer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Activity-scoped goal rows and totals, kept current by observing the savings_goals table
+public class SavingsGoalsViewModel extends AndroidViewModel {
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    public static final class GoalsState {
+        public final List<SavingsGoalRow> rows;
+        public final double totalSaved;
+        public final double totalTarget;
+
+        GoalsState(List<SavingsGoalRow> rows) {
+            double saved = 0;
+            double target = 0;
+            for (SavingsGoalRow row : rows) {
+                saved += row.goal.currentAmount;
+                target += row.goal.targetAmount;
+            }
+            this.rows = Collections.unmodifiableList(rows);
+            this.totalSaved = saved;
+            this.totalTarget = target;
+        }
+    }
+
+    private final RowPresenter presenter;
+    private final LiveData<List<SavingsGoal>> source;
+    private final Observer<List<SavingsGoal>> sourceObserver = this::present;
+    private final MutableLiveData<GoalsState> goals = new MutableLiveData<>();
+    private final Set<Integer> hiddenIds = new HashSet<>();
+    private int generation;
+
+    public SavingsGoalsViewModel(@NonNull Application application) {
+        super(application);
+        presenter = new RowPresenter(application);
+        source = AppDatabase.getInstance(application).savingsGoalDao().observeAllGoals();
+        source.observeForever(sourceObserver);
+    }
+
+    public LiveData<GoalsState> getGoals() {
+        return goals;
+    }
+
+    private void present(List<SavingsGoal> latest) {
+        if (latest == null) {
+            return;
+        }
+        int requested = ++generation;
+        Set<Integer> hidden = new HashSet<>(hiddenIds);
+        AppExecutors.getReadExecutor().execute(() -> {
+            List<SavingsGoal> visible = new ArrayList<>(latest.size());
+            for (SavingsGoal goal : latest) {
+                if (!hidden.contains(goal.id)) {
+                    visible.add(goal);
+                }
+            }
+            GoalsState state = new GoalsState(presenter.presentGoals(visible));
+            // Re-checked on the main thread so an older result cannot land after a newer one
+            MAIN_HANDLER.post(() -> {
+                if (requested == generation) {
+                    goals.setValue(state);
+                }
+            });
+        });
+    }
+
+    public void hide(int goalId) {
+        hiddenIds.add(goalId);
+        present(source.getValue());
+    }
+
+    public void restore(Collection<SavingsGoal> restored) {
+        for (SavingsGoal goal : restored) {
+            hiddenIds.remove(goal.id);
+        }
+        present(source.getValue());
+    }
+
+    public void forget(Collection<SavingsGoal> deleted) {
+        for (SavingsGoal goal : deleted) {
+            hiddenIds.remove(goal.id);
+        }
+    }
+
+    @Override
+    protected void onCleared() {
+        source.removeObserver(sourceObserver);
+    }
+}
@@ -1,44 +1,45 @@
 package com.example.financetracker;
 
 import android.content.Context;
-import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Collections;
 
 public class SpendingAnalyzer {
+    private static final int TOP_CATEGORIES = 3;
+    private static final int HISTORY_MONTHS = 36;
+    private static final int MIN_FORECAST_SAMPLES = 3;
+
     private final AppDatabase db;
-    private SpendingPredictor predictor;
+    private final PredictorHolder predictorHolder;
+    private final InsightCache cache;
 
     public SpendingAnalyzer(Context context) {
         db = AppDatabase.getInstance(context);
-        try {
-            predictor = new SpendingPredictor(context);
-        } catch (IOException e) {
-            predictor = null;
-        }
+        predictorHolder = PredictorHolder.getInstance(context);
+        cache = InsightCache.getInstance(context);
     }
 
+    // Returns cached insights when nothing has been written since they were
+    // computed. Otherwise blocks on queries and the model; call off the main thread.
     public String analyze() {
-        List<Transaction> transactions = db.transactionDao().getAll();
+        long version = cache.getVersion();
+        String cached = cache.get(version);
+        if (cached != null) {
+            return cached;
+        }
 
+        String insights = computeInsights();
+        cache.put(version, insights);
+        return insights;
+    }
 
-        double totalSpent = 0;
-        double totalIncome = 0;
-        HashMap<String, Double> categorySpending = new HashMap<>();
+    private String computeInsights() {
+        AccountSummary summary = db.accountSummaryDao().getSummary();
+        double totalSpent = summary != null ? summary.totalExpense : 0;
+        double totalIncome = summary != null ? summary.totalIncome : 0;
 
-        for (Transaction t : transactions) {
-            if (t.amount < 0) {
-                double amount = Math.abs(t.amount);
-                totalSpent += amount;
-                categorySpending.put(t.category,
-                        categorySpending.getOrDefault(t.category, 0.0) + amount);
-            } else {
-                totalIncome += t.amount;
-            }
-        }
+        List<CategoryTotal> topCategories =
+                db.monthlyCategoryTotalDao().getTopExpenseCategories(TOP_CATEGORIES);
 
 
         StringBuilder insights = new StringBuilder();
@@ -47,32 +48,43 @@ public class SpendingAnalyzer {
                 .append("\n\n");
 
 
-        if (!categorySpending.isEmpty()) {
+        if (!topCategories.isEmpty()) {
             insights.append("📊 Spending Breakdown:\n");
-            List<Map.Entry<String, Double>> sortedCategories =
-                    new ArrayList<>(categorySpending.entrySet());
-            sortedCategories.sort((a, b) -> b.getValue().compareTo(a.getValue()));
-
-            int count = Math.min(3, sortedCategories.size());
-            for (int i = 0; i < count; i++) {
-                Map.Entry<String, Double> entry = sortedCategories.get(i);
-                String category = entry.getKey();
-                double amount = entry.getValue();
-                double percentage = (amount / totalSpent) * 100;
-
-                insights.append("• ").append(category).append(": £")
-                        .append(String.format("%.2f", amount))
+            for (CategoryTotal entry : topCategories) {
+                double percentage = (entry.total / totalSpent) * 100;
+
+                insights.append("• ").append(entry.category).append(": £")
+                        .append(String.format("%.2f", entry.total))
                         .append(" (").append(String.format("%.1f", percentage)).append("%)\n");
             }
         }
 
 
-        if (predictor != null && transactions.size() >= 3) {
+        SpendingFeature feature = db.getSpendingFeature(SpendingFeature.ALL_CATEGORIES);
+        if (feature != null && feature.sampleCount >= MIN_FORECAST_SAMPLES) {
+            // The total and each top category are forecast in one engine call
+            List<ForecastInput> inputs = new ArrayList<>();
+            List<String> forecastCategories = new ArrayList<>();
+            inputs.add(buildForecastInput(feature,
+                    db.monthlyCategoryTotalDao().getRecentMonthlyExpenses(HISTORY_MONTHS)));
+            for (CategoryTotal entry : topCategories) {
+                SpendingFeature categoryFeature = db.getSpendingFeature(entry.category);
+                if (categoryFeature != null && categoryFeature.sampleCount >= MIN_FORECAST_SAMPLES) {
+                    inputs.add(buildForecastInput(categoryFeature, db.monthlyCategoryTotalDao()
+                            .getRecentMonthlyExpenses(entry.category, HISTORY_MONTHS)));
+                    forecastCategories.add(entry.category);
+                }
+            }
+
             try {
-                float prediction = predictor.predictNextMonthSpending(
-                        getLastNTransactions(transactions, 3));
+                Forecaster forecaster = predictorHolder.get();
+                float[] predictions = forecaster.forecastNextMonth(inputs);
                 insights.append("\n Next month expenditure prediction ≈ £")
-                        .append(String.format("%.2f", prediction));
+                        .append(String.format("%.2f", predictions[0]));
+                for (int i = 0; i < forecastCategories.size(); i++) {
+                    insights.append("\n   ").append(forecastCategories.get(i)).append(" ≈ £")
+                            .append(String.format("%.2f", predictions[i + 1]));
+                }
             } catch (Exception e) {
                 insights.append("\n⚠️ Prediction unavailable");
             }
@@ -99,14 +111,26 @@ public class SpendingAnalyzer {
         return insights.toString();
     }
 
-    private List<Transaction> getLastNTransactions(List<Transaction> transactions, int n) {
-        int startIndex = Math.max(0, transactions.size() - n);
-        return transactions.subList(startIndex, transactions.size());
-    }
+    private static ForecastInput buildForecastInput(SpendingFeature feature, List<MonthTotal> recent) {
+        ForecastInput input = new ForecastInput();
+        input.weightedAverage = (float) feature.ewmaAmount;
 
-    public void close() {
-        if (predictor != null) {
-            predictor.close();
+        if (recent.isEmpty()) {
+            return input;
         }
+
+        // Rows come newest first and skip months with no activity
+        int newest = monthIndex(recent.get(0).month);
+        int oldest = monthIndex(recent.get(recent.size() - 1).month);
+        input.months = newest - oldest + 1;
+        input.monthlyExpenses = new double[input.months];
+        for (MonthTotal row : recent) {
+            input.monthlyExpenses[monthIndex(row.month) - oldest] = row.total;
+        }
+        return input;
+    }
+
+    private static int monthIndex(int yearMonth) {
+        return (yearMonth / 100) * 12 + (yearMonth % 100 - 1);
     }
 }
\ No newline at end of file
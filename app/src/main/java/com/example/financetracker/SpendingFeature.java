@@ -0,0 +1,42 @@
+package com.example.financetracker;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+// Per-category forecast inputs, updated by triggers on every transaction write
+@Entity(tableName = "spending_features")
+public class SpendingFeature {
+    // Feature row across every category
+    public static final String ALL_CATEGORIES = "*";
+    public static final double EWMA_ALPHA = 0.5;
+    // A replay folds only this many of the newest rows: at EWMA_ALPHA 0.5 an
+    // older row would carry a weight below 2^-64, past double precision
+    public static final int REPLAY_ROWS = 64;
+
+    @PrimaryKey
+    @NonNull
+    @ColumnInfo(name = "feature_key")
+    public String featureKey = ALL_CATEGORIES;
+
+    // Exponentially weighted average of |amount|, newest rows weighted highest
+    @ColumnInfo(name = "ewma_amount")
+    public double ewmaAmount;
+
+    @ColumnInfo(name = "sample_count")
+    public int sampleCount;
+
+    @ColumnInfo(name = "last_epoch_day")
+    public int lastEpochDay;
+
+    // created_at of the newest row folded in; an insert older than this
+    // cannot be folded in order, so it marks the row stale instead
+    @ColumnInfo(name = "last_created_at", defaultValue = "0")
+    public long lastCreatedAt;
+
+    // Set when a delete, edit or out-of-order insert left ewma_amount behind
+    // the ledger; read features through AppDatabase.getSpendingFeature
+    @ColumnInfo(name = "stale", defaultValue = "0")
+    public boolean stale;
+}
@@ -0,0 +1,19 @@
+package com.example.financetracker;
+
+import androidx.room.Dao;
+import androidx.room.Query;
+
+import java.util.List;
+
+@Dao
+public interface SpendingFeatureDao {
+    String BY_KEY = "SELECT * FROM spending_features WHERE feature_key = :key";
+    String CATEGORY_FEATURES =
+            "SELECT * FROM spending_features WHERE feature_key != '*' ORDER BY feature_key";
+
+    @Query(BY_KEY)
+    SpendingFeature getFeature(String key);
+
+    @Query(CATEGORY_FEATURES)
+    List<SpendingFeature> getCategoryFeatures();
+}
@@ -5,21 +5,97 @@ import android.content.res.AssetFileDescriptor;
 import org.tensorflow.lite.Interpreter;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
-public class SpendingPredictor {
-    private final Interpreter tflite;
+public class SpendingPredictor implements Forecaster {
     private static final float SCALE_FACTOR = 1500f;
     private static final int MONTHS_TO_CONSIDER = 3;
+    private static final int DEFAULT_POOL_SIZE = 2;
+    private static final int DEFAULT_NUM_THREADS = 1;
+    public static final int FEATURE_COUNT = 1;
+
+    // Each slot owns an interpreter and its I/O tensors. TFLite requires a
+    // buffer whose capacity matches the tensor exactly, so single-row calls
+    // keep their own buffers and batch buffers are sized to the last batch.
+    private static class Slot {
+        final Interpreter interpreter;
+        final ByteBuffer singleInput = allocateFloats(FEATURE_COUNT);
+        final ByteBuffer singleOutput = allocateFloats(1);
+        ByteBuffer batchInput;
+        ByteBuffer batchOutput;
+        ByteBuffer input;
+        ByteBuffer output;
+        int batchSize = 1;
+
+        Slot(Interpreter interpreter) {
+            this.interpreter = interpreter;
+        }
+
+        void prepare(int rows) {
+            if (rows != batchSize) {
+                interpreter.resizeInput(0, new int[]{rows, FEATURE_COUNT});
+                interpreter.allocateTensors();
+                batchSize = rows;
+            }
+            if (rows == 1) {
+                input = singleInput;
+                output = singleOutput;
+            } else {
+                if (batchInput == null || batchInput.capacity() != rows * FEATURE_COUNT * Float.BYTES) {
+                    batchInput = allocateFloats(rows * FEATURE_COUNT);
+                    batchOutput = allocateFloats(rows);
+                }
+                input = batchInput;
+                output = batchOutput;
+            }
+            input.clear();
+            output.clear();
+        }
+    }
+
+    private static ByteBuffer allocateFloats(int count) {
+        return ByteBuffer.allocateDirect(count * Float.BYTES).order(ByteOrder.nativeOrder());
+    }
+
+    private final List<Slot> slots = new ArrayList<>();
+    private final BlockingQueue<Slot> idle;
+    private volatile boolean closed = false;
 
     public SpendingPredictor(Context context) throws IOException, IllegalArgumentException {
+        this(context, DEFAULT_POOL_SIZE, DEFAULT_NUM_THREADS, true);
+    }
+
+    /**
+     * @param poolSize   number of interpreters, i.e. how many callers can run at once
+     * @param numThreads threads per interpreter
+     * @param useXnnpack enable the XNNPACK CPU delegate
+     */
+    public SpendingPredictor(Context context, int poolSize, int numThreads, boolean useXnnpack)
+            throws IOException, IllegalArgumentException {
+        idle = new ArrayBlockingQueue<>(Math.max(1, poolSize));
         try {
-            tflite = new Interpreter(loadModelFile(context));
+            MappedByteBuffer model = loadModelFile(context);
+            Interpreter.Options options = new Interpreter.Options()
+                    .setNumThreads(numThreads)
+                    .setUseXNNPACK(useXnnpack);
+            for (int i = 0; i < Math.max(1, poolSize); i++) {
+                Slot slot = new Slot(new Interpreter(model, options));
+                slots.add(slot);
+                idle.add(slot);
+            }
         } catch (IOException e) {
+            close();
             throw new IOException("Failed to load TFLite model", e);
         } catch (Exception e) {
+            close();
             throw new IllegalArgumentException("Model initialization failed", e);
         }
     }
@@ -44,24 +120,107 @@ public class SpendingPredictor {
         }
     }
 
-    public synchronized float predictNextMonthSpending(List<Transaction> pastTransactions) {
+    public float predictNextMonthSpending(List<Transaction> pastTransactions) {
         if (pastTransactions == null || pastTransactions.isEmpty()) {
             return 0f;
         }
+        return predictNextMonthSpending(calculateWeightedAverage(pastTransactions));
+    }
+
+    @Override
+    public float forecastNextMonth(ForecastInput input) {
+        return predictNextMonthSpending(input.weightedAverage);
+    }
+
+    // Every input goes through the model in one predictBatch call
+    @Override
+    public float[] forecastNextMonth(List<ForecastInput> inputs) {
+        float[][] features = new float[inputs.size()][FEATURE_COUNT];
+        for (int i = 0; i < features.length; i++) {
+            features[i][0] = inputs.get(i).weightedAverage;
+        }
+        return predictBatch(features);
+    }
 
+    // Takes the ready-made recency-weighted amount, e.g. SpendingFeature.ewmaAmount
+    public float predictNextMonthSpending(float weightedAverage) {
+        Slot slot = acquire();
         try {
+            slot.prepare(1);
+            slot.input.putFloat(weightedAverage / SCALE_FACTOR);
+            slot.input.rewind();
 
-            float[][] input = new float[1][1];
-            input[0][0] = calculateWeightedAverage(pastTransactions) / SCALE_FACTOR;
+            slot.interpreter.run(slot.input, slot.output);
 
+            return slot.output.getFloat(0) * SCALE_FACTOR;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Inference failed", e);
+        } finally {
+            idle.add(slot);
+        }
+    }
 
-            float[][] output = new float[1][1];
-            tflite.run(input, output);
+    /**
+     * Forecasts every series in one interpreter call, e.g. one per category
+     * or budget. Each inner list is that series' recent transactions, oldest
+     * first.
+     */
+    public float[] predictForSeries(List<List<Transaction>> series) {
+        float[][] features = new float[series.size()][FEATURE_COUNT];
+        for (int i = 0; i < features.length; i++) {
+            List<Transaction> transactions = series.get(i);
+            features[i][0] = transactions == null || transactions.isEmpty()
+                    ? 0f : calculateWeightedAverage(transactions);
+        }
+        return predictBatch(features);
+    }
 
+    /**
+     * Runs N unscaled feature vectors as a single [N, FEATURE_COUNT] tensor
+     * and returns the N forecasts.
+     */
+    public float[] predictBatch(float[][] features) {
+        int rows = features.length;
+        float[] predictions = new float[rows];
+        if (rows == 0) {
+            return predictions;
+        }
 
-            return output[0][0] * SCALE_FACTOR;
-        } catch (Exception e) {
-            return 0f;
+        Slot slot = acquire();
+        try {
+            slot.prepare(rows);
+            for (float[] row : features) {
+                for (int f = 0; f < FEATURE_COUNT; f++) {
+                    slot.input.putFloat(row[f] / SCALE_FACTOR);
+                }
+            }
+            slot.input.rewind();
+
+            slot.interpreter.run(slot.input, slot.output);
+
+            for (int i = 0; i < rows; i++) {
+                predictions[i] = slot.output.getFloat(i * Float.BYTES) * SCALE_FACTOR;
+            }
+            return predictions;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Inference failed", e);
+        } finally {
+            idle.add(slot);
+        }
+    }
+
+    private Slot acquire() {
+        try {
+            while (!closed) {
+                Slot slot = idle.poll(100, TimeUnit.MILLISECONDS);
+                if (slot != null) {
+                    return slot;
+                }
+            }
+            throw new IllegalStateException("Predictor has been closed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for an interpreter", e);
         }
     }
 
@@ -80,9 +239,18 @@ public class SpendingPredictor {
         return weightSum > 0 ? sum / weightSum : 0f;
     }
 
+    // Waits for in-flight calls to hand their interpreters back before closing them
+    @Override
     public void close() {
-        if (tflite != null) {
-            tflite.close();
+        closed = true;
+        for (int i = 0; i < slots.size(); i++) {
+            try {
+                idle.take().interpreter.close();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
         }
+        slots.clear();
     }
 }
\ No newline at end of file
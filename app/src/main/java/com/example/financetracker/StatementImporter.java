@@ -0,0 +1,401 @@
+package com.example.financetracker;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Imports bank statement exports (CSV or OFX) by reading the stream line by
+ * line and writing fixed-size batches, so memory use is bounded by the batch
+ * size rather than by the file. Call from a background thread.
+ */
+public class StatementImporter {
+    private static final String TAG = "StatementImporter";
+    private static final int BATCH_SIZE = 1000;
+    private static final String DEFAULT_CATEGORY = "Other";
+    private static final Comparator<Transaction> BY_EPOCH_DAY =
+            Comparator.comparingInt(t -> t.epochDay);
+    // Returned by the date parsers; such rows are skipped rather than dated today
+    private static final long NO_DATE = Long.MIN_VALUE;
+    private static final Pattern COMMA_GROUPED = Pattern.compile("[-+]?\\d{1,3}(,\\d{3})+");
+    private static final Pattern DOT_GROUPED = Pattern.compile("[-+]?\\d{1,3}(\\.\\d{3})+");
+
+    public enum Format { CSV, OFX }
+
+    public interface ProgressListener {
+        void onProgress(int imported, int skipped);
+    }
+
+    public static class ImportResult {
+        public final int imported;
+        public final int skipped;
+
+        ImportResult(int imported, int skipped) {
+            this.imported = imported;
+            this.skipped = skipped;
+        }
+    }
+
+    private final AppDatabase db;
+    private final SimpleDateFormat displayFormat =
+            new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault());
+    private final SimpleDateFormat[] csvDateFormats = {
+            new SimpleDateFormat("yyyy-MM-dd", Locale.UK),
+            new SimpleDateFormat("dd/MM/yyyy", Locale.UK)
+    };
+    private final SimpleDateFormat ofxDateFormat = new SimpleDateFormat("yyyyMMdd", Locale.UK);
+
+    private final List<Transaction> batch = new ArrayList<>(BATCH_SIZE);
+    // category -> {amount, latest epoch day} folded over the current batch
+    private final Map<String, double[]> batchSpending = new HashMap<>();
+    private int imported;
+    private int skipped;
+    // Set when a row predates its series' last occurrence, e.g. newest-first statements
+    private boolean seriesOutOfOrder;
+
+    public StatementImporter(Context context) {
+        this(AppDatabase.getInstance(context));
+    }
+
+    StatementImporter(AppDatabase db) {
+        this.db = db;
+        for (SimpleDateFormat format : csvDateFormats) {
+            format.setLenient(false);
+        }
+        ofxDateFormat.setLenient(false);
+    }
+
+    public ImportResult importStatement(InputStream in, Format format,
+                                        ProgressListener listener) throws IOException {
+        imported = 0;
+        skipped = 0;
+        batch.clear();
+        batchSpending.clear();
+        seriesOutOfOrder = false;
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            if (format == Format.CSV) {
+                readCsv(reader, listener);
+            } else {
+                readOfx(reader, listener);
+            }
+        }
+        flush(listener);
+        if (seriesOutOfOrder) {
+            // Intervals can only be folded in date order, so replay them once
+            db.rebuildRecurringSeries();
+            InsightCache.ledgerChanged();
+        }
+        return new ImportResult(imported, skipped);
+    }
+
+    private void readCsv(BufferedReader reader, ProgressListener listener) throws IOException {
+        String header = reader.readLine();
+        if (header == null) {
+            return;
+        }
+
+        List<String> columns = splitCsvLine(header);
+        int dateCol = -1, titleCol = -1, amountCol = -1, categoryCol = -1;
+        for (int i = 0; i < columns.size(); i++) {
+            String name = columns.get(i).trim().toLowerCase(Locale.ROOT);
+            if (name.equals("date")) {
+                dateCol = i;
+            } else if (name.equals("title") || name.equals("description") || name.equals("name")) {
+                titleCol = i;
+            } else if (name.equals("amount")) {
+                amountCol = i;
+            } else if (name.equals("category")) {
+                categoryCol = i;
+            }
+        }
+        if (amountCol == -1) {
+            throw new IOException("CSV header has no amount column");
+        }
+        if (dateCol == -1) {
+            throw new IOException("CSV header has no date column");
+        }
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            List<String> fields = splitCsvLine(line);
+            String amountText = field(fields, amountCol);
+            long createdAt = parseCsvDate(field(fields, dateCol));
+            if (amountText == null || createdAt == NO_DATE) {
+                skipped++;
+                continue;
+            }
+            try {
+                add(parseAmount(amountText), field(fields, titleCol), field(fields, categoryCol),
+                        createdAt, listener);
+            } catch (NumberFormatException e) {
+                skipped++;
+            }
+        }
+    }
+
+    private void readOfx(BufferedReader reader, ProgressListener listener) throws IOException {
+        parseOfx(reader, (amount, title, date) -> addOfx(amount, title, date, listener));
+    }
+
+    interface OfxHandler {
+        void onTransaction(String amount, String title, String date);
+    }
+
+    static void parseOfx(BufferedReader reader, OfxHandler handler) throws IOException {
+        // OFX 1.x is SGML with optional closing tags, so read tag/value pairs
+        // regardless of how they are split across lines.
+        String amount = null, title = null, date = null;
+        boolean inTransaction = false;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            int pos = line.indexOf('<');
+            while (pos != -1) {
+                int close = line.indexOf('>', pos);
+                if (close == -1) {
+                    break;
+                }
+                String tag = line.substring(pos + 1, close).toUpperCase(Locale.ROOT);
+                int next = line.indexOf('<', close);
+                String value = line.substring(close + 1, next == -1 ? line.length() : next).trim();
+
+                if (tag.equals("STMTTRN")) {
+                    inTransaction = true;
+                    amount = title = date = null;
+                } else if (tag.equals("/STMTTRN")) {
+                    if (inTransaction) {
+                        handler.onTransaction(amount, title, date);
+                    }
+                    inTransaction = false;
+                } else if (inTransaction) {
+                    if (tag.equals("TRNAMT")) {
+                        amount = value;
+                    } else if (tag.equals("NAME") || (tag.equals("MEMO") && title == null)) {
+                        title = value;
+                    } else if (tag.equals("DTPOSTED")) {
+                        date = value;
+                    }
+                }
+                pos = next;
+            }
+        }
+    }
+
+    private void addOfx(String amount, String title, String date, ProgressListener listener) {
+        long createdAt = parseOfxDate(date);
+        if (amount == null || createdAt == NO_DATE) {
+            skipped++;
+            return;
+        }
+        try {
+            add(parseAmount(amount), title, null, createdAt, listener);
+        } catch (NumberFormatException e) {
+            skipped++;
+        }
+    }
+
+    private void add(double amount, String title, String category, long createdAt,
+                     ProgressListener listener) {
+        Transaction transaction = new Transaction();
+        transaction.title = title;
+        transaction.amount = amount;
+        transaction.category = category == null || category.isEmpty() ? DEFAULT_CATEGORY : category;
+        transaction.isExpense = amount < 0;
+        transaction.createdAt = createdAt;
+        transaction.epochDay = EpochDays.fromMillis(createdAt);
+        transaction.formattedDate = displayFormat.format(new Date(createdAt));
+        batch.add(transaction);
+
+        if (transaction.isExpense) {
+            double[] spending = batchSpending.get(transaction.category);
+            if (spending == null) {
+                spending = new double[]{0, transaction.epochDay};
+                batchSpending.put(transaction.category, spending);
+            }
+            spending[0] += Math.abs(amount);
+            spending[1] = Math.max(spending[1], transaction.epochDay);
+        }
+
+        if (batch.size() >= BATCH_SIZE) {
+            flush(listener);
+        }
+    }
+
+    private void flush(ProgressListener listener) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        // Statements are often newest first; detection needs rows in date order
+        batch.sort(BY_EPOCH_DAY);
+        db.runInTransaction(() -> {
+            scoreBatch();
+            detectRecurrences();
+            db.transactionDao().insertAll(batch);
+            for (Map.Entry<String, double[]> entry : batchSpending.entrySet()) {
+                double[] spending = entry.getValue();
+                db.budgetDao().addToSpending(entry.getKey(), spending[0], (int) spending[1]);
+            }
+        });
+        InsightCache.ledgerChanged();
+
+        imported += batch.size();
+        batch.clear();
+        batchSpending.clear();
+        Log.d(TAG, "Imported " + imported + " rows");
+        if (listener != null) {
+            listener.onProgress(imported, skipped);
+        }
+    }
+
+    // Runs inside the batch transaction so the stats are read and written
+    // under the write lock; another writer's update cannot be overwritten
+    private void scoreBatch() {
+        Map<String, CategoryStats> stats = new HashMap<>();
+        for (Transaction transaction : batch) {
+            if (!transaction.isExpense) {
+                continue;
+            }
+            CategoryStats s = stats.get(transaction.category);
+            if (s == null) {
+                s = db.getCategoryStats(transaction.category);
+                if (s == null) {
+                    s = new CategoryStats();
+                    s.category = transaction.category;
+                }
+                stats.put(transaction.category, s);
+            }
+            transaction.isAnomaly = AnomalyDetector.scoreAndUpdate(s, transaction.amount);
+        }
+        db.categoryStatsDao().upsertAll(new ArrayList<>(stats.values()));
+    }
+
+    // Like scoreBatch, reads and writes the series under the batch transaction
+    private void detectRecurrences() {
+        Map<String, RecurringSeries> series = new HashMap<>();
+        for (Transaction transaction : batch) {
+            String key = RecurrenceDetector.keyFor(transaction.title, transaction.amount);
+            RecurringSeries s = series.get(key);
+            if (s == null) {
+                s = db.recurringSeriesDao().get(key);
+                if (s == null) {
+                    s = RecurrenceDetector.newSeries(key, transaction);
+                }
+                series.put(key, s);
+            }
+            if (s.occurrences > 0 && transaction.epochDay < s.lastEpochDay) {
+                seriesOutOfOrder = true;
+            }
+            RecurrenceDetector.update(s, transaction.amount, transaction.epochDay);
+        }
+        db.recurringSeriesDao().upsertAll(new ArrayList<>(series.values()));
+    }
+
+    private long parseCsvDate(String value) {
+        if (value != null && !value.isEmpty()) {
+            for (SimpleDateFormat format : csvDateFormats) {
+                try {
+                    return format.parse(value.trim()).getTime();
+                } catch (ParseException ignored) {
+                }
+            }
+        }
+        return NO_DATE;
+    }
+
+    private long parseOfxDate(String value) {
+        if (value != null && value.length() >= 8) {
+            try {
+                return ofxDateFormat.parse(value.substring(0, 8)).getTime();
+            } catch (ParseException ignored) {
+            }
+        }
+        return NO_DATE;
+    }
+
+    /**
+     * Parses an amount written with either decimal separator. When both
+     * appear the last one is the decimal point and the other must group
+     * thousands; a lone comma followed by three digits ("1,250") could be
+     * either, so it is rejected rather than guessed.
+     */
+    static double parseAmount(String text) {
+        String value = text.trim();
+        int comma = value.lastIndexOf(',');
+        int dot = value.lastIndexOf('.');
+        char decimal;
+        if (comma != -1 && dot != -1) {
+            decimal = comma > dot ? ',' : '.';
+        } else if (comma != -1 && value.indexOf(',') == comma) {
+            if (value.length() - comma - 1 == 3) {
+                throw new NumberFormatException("Ambiguous amount: " + text);
+            }
+            decimal = ',';
+        } else if (dot != -1 && value.indexOf('.') != dot) {
+            decimal = ',';
+        } else {
+            decimal = '.';
+        }
+
+        int point = value.lastIndexOf(decimal);
+        String whole = point == -1 ? value : value.substring(0, point);
+        char grouping = decimal == ',' ? '.' : ',';
+        if (whole.indexOf(grouping) != -1) {
+            Pattern grouped = grouping == ',' ? COMMA_GROUPED : DOT_GROUPED;
+            if (!grouped.matcher(whole).matches()) {
+                throw new NumberFormatException("Bad digit grouping: " + text);
+            }
+            whole = whole.replace(String.valueOf(grouping), "");
+        }
+        return Double.parseDouble(point == -1 ? whole : whole + "." + value.substring(point + 1));
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index >= 0 && index < fields.size() ? fields.get(index).trim() : null;
+    }
+
+    static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (c == ',' && !quoted) {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
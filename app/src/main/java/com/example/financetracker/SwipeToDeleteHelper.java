@@ -0,0 +1,151 @@
+package com.example.financetracker;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.ItemTouchHelper;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.google.android.material.snackbar.Snackbar;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Swipe-to-delete shared by the list fragments. A swiped row is hidden
+ * straight away and queued; the queue is written as one transaction when
+ * the undo window closes, or earlier through flush().
+ */
+public class SwipeToDeleteHelper<T> extends ItemTouchHelper.SimpleCallback {
+    private static final String TAG = "SwipeToDelete";
+    static final int UNDO_WINDOW_MS = 4000;
+
+    public interface Host<T> {
+        T itemAt(int position);
+
+        // Main thread: drop the row from the list without touching the database
+        void hide(T item);
+
+        // Main thread: the user pressed undo; the rows were never deleted
+        void restore(List<T> items);
+
+        // Transaction executor, inside a single runInTransaction
+        void deleteAll(AppDatabase db, List<T> items);
+
+        // Transaction executor, straight after the batch committed
+        default void onDeleteCommitted(List<T> items) {
+        }
+
+        // Main thread, after the batch committed or failed
+        void onDeleteFinished(List<T> items, boolean success);
+    }
+
+    private final Host<T> host;
+    private final AppDatabase db;
+    private final RecyclerView recyclerView;
+    private final String itemLabel;
+    private final Paint paint = new Paint();
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable flushRunnable = this::flush;
+    private List<T> pending = new ArrayList<>();
+    private Snackbar snackbar;
+
+    public SwipeToDeleteHelper(Context context, RecyclerView recyclerView, String itemLabel, Host<T> host) {
+        super(0, ItemTouchHelper.LEFT | ItemTouchHelper.RIGHT);
+        this.host = host;
+        this.db = AppDatabase.getInstance(context);
+        this.recyclerView = recyclerView;
+        this.itemLabel = itemLabel;
+        paint.setColor(ContextCompat.getColor(context, R.color.delete_red));
+        new ItemTouchHelper(this).attachToRecyclerView(recyclerView);
+    }
+
+    @Override
+    public boolean onMove(@NonNull RecyclerView recyclerView,
+                          @NonNull RecyclerView.ViewHolder viewHolder,
+                          @NonNull RecyclerView.ViewHolder target) {
+        return false;
+    }
+
+    @Override
+    public void onSwiped(@NonNull RecyclerView.ViewHolder viewHolder, int direction) {
+        int position = viewHolder.getAdapterPosition();
+        if (position != RecyclerView.NO_POSITION) {
+            delete(host.itemAt(position));
+        }
+    }
+
+    @Override
+    public void onChildDraw(@NonNull Canvas c, @NonNull RecyclerView recyclerView,
+                            @NonNull RecyclerView.ViewHolder viewHolder,
+                            float dX, float dY, int actionState, boolean isCurrentlyActive) {
+        View itemView = viewHolder.itemView;
+        if (dX > 0) {
+            c.drawRect(itemView.getLeft(), itemView.getTop(), dX, itemView.getBottom(), paint);
+        } else {
+            c.drawRect(itemView.getRight() + dX, itemView.getTop(),
+                    itemView.getRight(), itemView.getBottom(), paint);
+        }
+
+        super.onChildDraw(c, recyclerView, viewHolder, dX, dY, actionState, isCurrentlyActive);
+    }
+
+    // Queues a delete with the same undo window a swipe gets
+    public void delete(T item) {
+        host.hide(item);
+        pending.add(item);
+
+        handler.removeCallbacks(flushRunnable);
+        handler.postDelayed(flushRunnable, UNDO_WINDOW_MS);
+
+        String message = pending.size() == 1
+                ? itemLabel + " deleted"
+                : pending.size() + " items deleted";
+        snackbar = Snackbar.make(recyclerView, message, Snackbar.LENGTH_INDEFINITE)
+                .setAction("Undo", v -> undo());
+        snackbar.show();
+    }
+
+    private void undo() {
+        handler.removeCallbacks(flushRunnable);
+        List<T> restored = pending;
+        pending = new ArrayList<>();
+        snackbar = null;
+        host.restore(restored);
+    }
+
+    // Commits anything still queued; fragments call this from onStop
+    public void flush() {
+        handler.removeCallbacks(flushRunnable);
+        if (snackbar != null) {
+            snackbar.dismiss();
+            snackbar = null;
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<T> batch = pending;
+        pending = new ArrayList<>();
+        AppExecutors.getWriteExecutor().execute(() -> {
+            boolean success;
+            try {
+                db.runInTransaction(() -> host.deleteAll(db, batch));
+                host.onDeleteCommitted(batch);
+                success = true;
+            } catch (Exception e) {
+                Log.e(TAG, "Error deleting " + batch.size() + " items", e);
+                success = false;
+            }
+            boolean result = success;
+            handler.post(() -> host.onDeleteFinished(batch, result));
+        });
+    }
+}
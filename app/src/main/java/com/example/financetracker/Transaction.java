@@ -2,9 +2,17 @@ package com.example.financetracker;
 
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
-@Entity(tableName = "transactions")
+@Entity(tableName = "transactions",
+        indices = {
+                @Index(value = {"created_at"}),
+                @Index(value = {"goal_id"}),
+                @Index(value = {"category", "created_at"}),
+                @Index(value = {"epoch_day"}),
+                @Index(value = {"category", "epoch_day"})
+        })
 public class Transaction {
     @PrimaryKey(autoGenerate = true)
     public int id;
@@ -24,9 +32,17 @@ public class Transaction {
     @ColumnInfo(name = "created_at")
     public long createdAt = System.currentTimeMillis();
 
+    // Local calendar day as days since 1970-01-01, see EpochDays
+    @ColumnInfo(name = "epoch_day", defaultValue = "0")
+    public int epochDay;
+
     @ColumnInfo(name = "is_goal_deposit")
     public boolean isGoalDeposit = false;
 
     @ColumnInfo(name = "goal_id")
     public int goalId = -1;
+
+    // Set when the expense was unusual for its category at insert time
+    @ColumnInfo(name = "is_anomaly", defaultValue = "0")
+    public boolean isAnomaly = false;
 }
\ No newline at end of file
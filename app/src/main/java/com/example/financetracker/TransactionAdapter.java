@@ -5,30 +5,79 @@ import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
-import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
 
 public class TransactionAdapter extends RecyclerView.Adapter<TransactionAdapter.ViewHolder> {
 
-    private List<Transaction> transactions;
+    private static final int PREFETCH_DISTANCE = 10;
+
+    static final DiffUtil.ItemCallback<TransactionRow> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<TransactionRow>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull TransactionRow a, @NonNull TransactionRow b) {
+                    return a.transaction.id == b.transaction.id;
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull TransactionRow a, @NonNull TransactionRow b) {
+                    return a.sameContentAs(b);
+                }
+            };
+
+    // Lists are diffed on a background thread; positions is rebuilt when each diff is committed
+    private final AsyncListDiffer<TransactionRow> differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
+    private final Map<Integer, Integer> positions = new HashMap<>();
+    // Last list handed to the differ, which may still be diffing it
+    private List<TransactionRow> latest = new ArrayList<>();
     private OnTransactionClickListener listener;
+    private OnLoadMoreListener loadMoreListener;
+    private boolean hasMore = false;
+    private boolean loadingMore = false;
 
     public interface OnTransactionClickListener {
         void onTransactionClick(Transaction transaction);
         void onTransactionLongClick(Transaction transaction);
     }
 
-    public TransactionAdapter(List<Transaction> transactions, OnTransactionClickListener listener) {
-        this.transactions = new ArrayList<>(transactions);
+    public interface OnLoadMoreListener {
+        void onLoadMore(Transaction lastTransaction);
+    }
+
+    public TransactionAdapter(List<TransactionRow> rows, OnTransactionClickListener listener) {
         this.listener = listener;
+        setHasStableIds(true);
+        differ.addListListener((previous, current) -> {
+            positions.clear();
+            for (int i = 0; i < current.size(); i++) {
+                positions.put(current.get(i).transaction.id, i);
+            }
+        });
+        submit(new ArrayList<>(rows));
+    }
+
+    public void setOnLoadMoreListener(OnLoadMoreListener loadMoreListener) {
+        this.loadMoreListener = loadMoreListener;
+    }
+
+    public void setTransactions(List<TransactionRow> rows, boolean hasMore) {
+        this.hasMore = hasMore;
+        this.loadingMore = false;
+        submit(new ArrayList<>(rows));
     }
 
-    public void setTransactions(List<Transaction> newTransactions) {
-        this.transactions = new ArrayList<>(newTransactions);
-        notifyDataSetChanged();
+    private void submit(List<TransactionRow> list) {
+        latest = list;
+        differ.submitList(list);
+    }
+
+    public void onLoadMoreFailed() {
+        loadingMore = false;
     }
 
     @NonNull
@@ -36,66 +85,71 @@ public class TransactionAdapter extends RecyclerView.Adapter<TransactionAdapter.
     public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(parent.getContext())
                 .inflate(R.layout.item_transaction, parent, false);
-        return new ViewHolder(view);
+        ViewHolder holder = new ViewHolder(view);
+
+        // Listeners are attached once per holder and resolve the row at click time
+        view.setOnClickListener(v -> {
+            int position = holder.getAdapterPosition();
+            if (listener != null && position != RecyclerView.NO_POSITION) {
+                listener.onTransactionClick(getTransactionAt(position));
+            }
+        });
+        view.setOnLongClickListener(v -> {
+            int position = holder.getAdapterPosition();
+            if (listener != null && position != RecyclerView.NO_POSITION) {
+                listener.onTransactionLongClick(getTransactionAt(position));
+                return true;
+            }
+            return false;
+        });
+        return holder;
     }
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        Transaction transaction = transactions.get(position);
-
-
-        holder.tvTitle.setText(transaction.title);
-        holder.tvCategory.setText(transaction.category);
-
-        String amountText = String.format(Locale.UK, "%s%.2f",
-                transaction.amount >= 0 ? "+" : "",
-                Math.abs(transaction.amount));
-        holder.tvAmount.setText(amountText);
+        TransactionRow row = differ.getCurrentList().get(position);
+        requestMoreIfNeeded(position);
 
-        int color = ContextCompat.getColor(holder.itemView.getContext(),
-                transaction.amount >= 0 ? R.color.income_green : R.color.expense_red);
-        holder.tvAmount.setTextColor(color);
+        holder.tvTitle.setText(row.title);
+        holder.tvCategory.setText(row.category);
+        holder.tvAmount.setText(row.amountText);
+        holder.tvAmount.setTextColor(row.amountColor);
 
-        if (transaction.formattedDate != null) {
-            holder.tvDate.setText(transaction.formattedDate);
+        if (row.dateText != null) {
+            holder.tvDate.setText(row.dateText);
             holder.tvDate.setVisibility(View.VISIBLE);
         } else {
             holder.tvDate.setVisibility(View.GONE);
         }
+    }
 
-
-        holder.itemView.setOnClickListener(v -> {
-            if (listener != null) {
-                listener.onTransactionClick(transaction);
-            }
-        });
-
-        holder.itemView.setOnLongClickListener(v -> {
-            if (listener != null) {
-                listener.onTransactionLongClick(transaction);
-                return true;
-            }
-            return false;
-        });
+    private void requestMoreIfNeeded(int position) {
+        // Measured against the latest submitted list so a page still being diffed isn't requested twice
+        if (loadMoreListener == null || !hasMore || loadingMore
+                || position < latest.size() - PREFETCH_DISTANCE) {
+            return;
+        }
+        loadingMore = true;
+        loadMoreListener.onLoadMore(latest.get(latest.size() - 1).transaction);
     }
 
     @Override
     public int getItemCount() {
-        return transactions.size();
+        return differ.getCurrentList().size();
     }
 
-    public List<Transaction> getTransactions() {
-        return transactions;
+    @Override
+    public long getItemId(int position) {
+        return differ.getCurrentList().get(position).transaction.id;
     }
 
-    public void removeTransaction(int position) {
-        transactions.remove(position);
-        notifyItemRemoved(position);
+    public Transaction getTransactionAt(int position) {
+        return differ.getCurrentList().get(position).transaction;
     }
 
-    public void updateTransaction(Transaction transaction, int position) {
-        transactions.set(position, transaction);
-        notifyItemChanged(position);
+    public int getPositionOf(int transactionId) {
+        Integer position = positions.get(transactionId);
+        return position != null ? position : RecyclerView.NO_POSITION;
     }
 
     public static class ViewHolder extends RecyclerView.ViewHolder {
@@ -109,4 +163,4 @@ public class TransactionAdapter extends RecyclerView.Adapter<TransactionAdapter.
             tvDate = itemView.findViewById(R.id.tvDate);
         }
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,8 @@
 package com.example.financetracker;
 
+import android.database.Cursor;
+
+import androidx.lifecycle.LiveData;
 import androidx.room.Dao;
 import androidx.room.Delete;
 import androidx.room.Insert;
@@ -11,25 +14,94 @@ import java.util.List;
 
 @Dao
 public interface TransactionDao {
+    // Query text is shared with QueryPlanTest so the plans it
+    // checks are the ones Room actually runs
+    String ALL = "SELECT * FROM transactions";
+    String FIRST_PAGE =
+            "SELECT * FROM transactions ORDER BY created_at DESC, id DESC LIMIT :limit";
+    // The leading created_at <= bound is what lets SQLite range-search the
+    // index; the OR alone would not be sargable
+    String PAGE_AFTER =
+            "SELECT * FROM transactions " +
+                    "WHERE created_at <= :createdAt AND (created_at < :createdAt OR id < :id) " +
+                    "ORDER BY created_at DESC, id DESC LIMIT :limit";
+    String STREAM_RANGE =
+            "SELECT * FROM transactions WHERE created_at >= :from AND created_at < :to " +
+                    "ORDER BY created_at, id";
+    String STREAM_RANGE_FOR_CATEGORY =
+            "SELECT * FROM transactions WHERE category = :category " +
+                    "AND created_at >= :from AND created_at < :to ORDER BY created_at, id";
+    String FOR_DAY =
+            "SELECT * FROM transactions WHERE epoch_day = :day ORDER BY id DESC";
+    String BETWEEN_DAYS =
+            "SELECT * FROM transactions WHERE epoch_day >= :fromDay AND epoch_day < :toDay " +
+                    "ORDER BY epoch_day DESC, id DESC";
+    String BETWEEN_DAYS_FOR_CATEGORY =
+            "SELECT * FROM transactions WHERE category = :category " +
+                    "AND epoch_day >= :fromDay AND epoch_day < :toDay ORDER BY epoch_day DESC, id DESC";
+    String SUM_BETWEEN_DAYS =
+            "SELECT IFNULL(SUM(amount), 0) FROM transactions " +
+                    "WHERE epoch_day >= :fromDay AND epoch_day < :toDay";
+    String COUNT = "SELECT COUNT(*) FROM transactions";
+    String BY_ID = "SELECT * FROM transactions WHERE id = :id";
+    String FOR_GOAL = "SELECT * FROM transactions WHERE goal_id = :goalId";
+
     @Insert
     long insert(Transaction transaction);
 
-    @Query("SELECT * FROM transactions")
+    @Insert
+    void insertAll(List<Transaction> transactions);
+
+    @Query(ALL)
     List<Transaction> getAll();
 
+    @Query(FIRST_PAGE)
+    List<Transaction> getFirstPage(int limit);
+
+    // Re-runs whenever the transactions table is invalidated; observe the
+    // head page only and seek older pages with getPageAfter
+    @Query(FIRST_PAGE)
+    LiveData<List<Transaction>> observeLatest(int limit);
+
+    // Seek past the last row of the previous page instead of using OFFSET
+    @Query(PAGE_AFTER)
+    List<Transaction> getPageAfter(long createdAt, int id, int limit);
+
+    // Streaming reads for export: callers walk the cursor and must close it
+    @Query(STREAM_RANGE)
+    Cursor streamRange(long from, long to);
 
-    @Query("SELECT COUNT(*) FROM transactions")
+    @Query(STREAM_RANGE_FOR_CATEGORY)
+    Cursor streamRangeForCategory(String category, long from, long to);
+
+    // Day ranges are half-open [fromDay, toDay); see EpochDays for period bounds
+    @Query(FOR_DAY)
+    List<Transaction> getForDay(int day);
+
+    @Query(BETWEEN_DAYS)
+    List<Transaction> getBetweenDays(int fromDay, int toDay);
+
+    @Query(BETWEEN_DAYS_FOR_CATEGORY)
+    List<Transaction> getBetweenDaysForCategory(String category, int fromDay, int toDay);
+
+    @Query(SUM_BETWEEN_DAYS)
+    double sumBetweenDays(int fromDay, int toDay);
+
+    @Query(COUNT)
     int getCount();
 
     @Delete
     void delete(Transaction transaction);
 
-    @Query("SELECT * FROM transactions WHERE id = :id")
+    @Delete
+    void delete(List<Transaction> transactions);
+
+    @Query(BY_ID)
     Transaction getById(int id);
 
     @Update
     void update(Transaction transaction);
 
-    @Query("SELECT * FROM transactions WHERE goal_id = :goalId")
+    @Query(FOR_GOAL)
     List<Transaction> getTransactionsForGoal(int goalId);
 }
\ No newline at end of file
@@ -0,0 +1,170 @@
+package com.example.financetracker;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Writes transactions straight from a database cursor to an output stream,
+ * one row at a time, so exports never hold the ledger in memory. Call from a
+ * background thread.
+ */
+public class TransactionExporter {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    public enum Format { CSV, JSON }
+
+    private final AppDatabase db;
+
+    public TransactionExporter(Context context) {
+        this(AppDatabase.getInstance(context));
+    }
+
+    TransactionExporter(AppDatabase db) {
+        this.db = db;
+    }
+
+    /**
+     * @param category only export this category, or null for all
+     * @param from     inclusive lower bound on created_at (epoch millis)
+     * @param to       exclusive upper bound on created_at (epoch millis)
+     * @return number of rows written
+     */
+    public int export(OutputStream out, Format format, String category,
+                      long from, long to) throws IOException {
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+
+        try (Cursor cursor = category == null
+                ? db.transactionDao().streamRange(from, to)
+                : db.transactionDao().streamRangeForCategory(category, from, to)) {
+            int rows = format == Format.CSV ? writeCsv(cursor, writer) : writeJson(cursor, writer);
+            writer.flush();
+            return rows;
+        }
+    }
+
+    private int writeCsv(Cursor cursor, Writer writer) throws IOException {
+        Columns c = new Columns(cursor);
+        writer.write("id,created_at,date,title,category,amount,is_expense\n");
+
+        int rows = 0;
+        while (cursor.moveToNext()) {
+            writer.write(Integer.toString(cursor.getInt(c.id)));
+            writer.write(',');
+            writer.write(Long.toString(cursor.getLong(c.createdAt)));
+            writer.write(',');
+            writer.write(EpochDays.toIsoDate(cursor.getInt(c.epochDay)));
+            writer.write(',');
+            writeCsvField(writer, cursor.getString(c.title));
+            writer.write(',');
+            writeCsvField(writer, cursor.getString(c.category));
+            writer.write(',');
+            writer.write(String.format(Locale.UK, "%.2f", cursor.getDouble(c.amount)));
+            writer.write(',');
+            writer.write(cursor.getInt(c.isExpense) != 0 ? "true" : "false");
+            writer.write('\n');
+            rows++;
+        }
+        return rows;
+    }
+
+    private int writeJson(Cursor cursor, Writer writer) throws IOException {
+        Columns c = new Columns(cursor);
+        writer.write('[');
+
+        int rows = 0;
+        while (cursor.moveToNext()) {
+            if (rows > 0) {
+                writer.write(',');
+            }
+            writer.write("\n{\"id\":");
+            writer.write(Integer.toString(cursor.getInt(c.id)));
+            writer.write(",\"created_at\":");
+            writer.write(Long.toString(cursor.getLong(c.createdAt)));
+            writer.write(",\"date\":");
+            writer.write('"');
+            writer.write(EpochDays.toIsoDate(cursor.getInt(c.epochDay)));
+            writer.write('"');
+            writer.write(",\"title\":");
+            writeJsonString(writer, cursor.getString(c.title));
+            writer.write(",\"category\":");
+            writeJsonString(writer, cursor.getString(c.category));
+            writer.write(",\"amount\":");
+            writer.write(String.format(Locale.UK, "%.2f", cursor.getDouble(c.amount)));
+            writer.write(",\"is_expense\":");
+            writer.write(cursor.getInt(c.isExpense) != 0 ? "true" : "false");
+            writer.write('}');
+            rows++;
+        }
+        writer.write("\n]\n");
+        return rows;
+    }
+
+    static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == '"') {
+                writer.write('"');
+            }
+            writer.write(ch);
+        }
+        writer.write('"');
+    }
+
+    static void writeJsonString(Writer writer, String value) throws IOException {
+        if (value == null) {
+            writer.write("null");
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            switch (ch) {
+                case '"': writer.write("\\\""); break;
+                case '\\': writer.write("\\\\"); break;
+                case '\n': writer.write("\\n"); break;
+                case '\r': writer.write("\\r"); break;
+                case '\t': writer.write("\\t"); break;
+                default:
+                    if (ch < 0x20) {
+                        writer.write(String.format(Locale.ROOT, "\\u%04x", (int) ch));
+                    } else {
+                        writer.write(ch);
+                    }
+            }
+        }
+        writer.write('"');
+    }
+
+    private static class Columns {
+        final int id, title, category, amount, isExpense, epochDay, createdAt;
+
+        Columns(Cursor cursor) {
+            id = cursor.getColumnIndexOrThrow("id");
+            title = cursor.getColumnIndexOrThrow("title");
+            category = cursor.getColumnIndexOrThrow("category");
+            amount = cursor.getColumnIndexOrThrow("amount");
+            isExpense = cursor.getColumnIndexOrThrow("is_expense");
+            epochDay = cursor.getColumnIndexOrThrow("epoch_day");
+            createdAt = cursor.getColumnIndexOrThrow("created_at");
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.financetracker;
+
+import androidx.annotation.NonNull;
+
+import java.util.Objects;
+
+// Display-ready transaction, built off the main thread by RowPresenter
+public final class TransactionRow {
+    public final Transaction transaction;
+    public final String title;
+    public final String category;
+    public final String amountText;
+    public final int amountColor;
+    public final String dateText;
+
+    TransactionRow(@NonNull Transaction transaction, String amountText, int amountColor) {
+        this.transaction = transaction;
+        this.title = transaction.title;
+        this.category = transaction.category;
+        this.amountText = amountText;
+        this.amountColor = amountColor;
+        this.dateText = transaction.formattedDate;
+    }
+
+    boolean sameContentAs(TransactionRow other) {
+        return amountColor == other.amountColor
+                && Objects.equals(amountText, other.amountText)
+                && Objects.equals(title, other.title)
+                && Objects.equals(category, other.category)
+                && Objects.equals(dateText, other.dateText);
+    }
+}
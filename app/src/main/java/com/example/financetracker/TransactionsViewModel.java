@@ -0,0 +1,248 @@
+package com.example.financetracker;
+
+import android.app.Application;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Observer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Activity-scoped state for TransactionsFragment. Only the newest page is
+ * observed through Room, so inserts, edits and deletes from any screen show
+ * up without a reload; older pages are appended with keyset seeks past the
+ * last loaded row. All fields are touched on the main thread only.
+ */
+public class TransactionsViewModel extends AndroidViewModel {
+    static final int PAGE_SIZE = 50;
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    public static final class ListState {
+        public final List<TransactionRow> rows;
+        public final boolean hasMore;
+
+        ListState(List<TransactionRow> rows, boolean hasMore) {
+            this.rows = Collections.unmodifiableList(rows);
+            this.hasMore = hasMore;
+        }
+    }
+
+    private final TransactionDao dao;
+    private final RowPresenter presenter;
+    private final LiveData<List<Transaction>> head;
+    private final Observer<List<Transaction>> headObserver = this::onHeadChanged;
+    private final MutableLiveData<ListState> transactions = new MutableLiveData<>();
+    private final LiveData<Double> balance;
+    // Rows below the head page, in the same order
+    private List<Transaction> older = new ArrayList<>();
+    private boolean olderHasMore;
+    // Rows queued for deletion by the swipe helper stay out of the list until the delete lands
+    private final Set<Integer> hiddenIds = new HashSet<>();
+    // Bumped per emission so a slower presentation of older data is dropped
+    private int generation;
+    // Bumped per head emission so a page seeked from an old boundary is dropped
+    private int olderGeneration;
+    private boolean loadingPage;
+
+    public TransactionsViewModel(@NonNull Application application) {
+        super(application);
+        AppDatabase db = AppDatabase.getInstance(application);
+        dao = db.transactionDao();
+        presenter = new RowPresenter(application);
+        head = dao.observeLatest(PAGE_SIZE);
+        head.observeForever(headObserver);
+        balance = db.accountSummaryDao().observeBalance();
+    }
+
+    public LiveData<ListState> getTransactions() {
+        return transactions;
+    }
+
+    public LiveData<Double> getBalance() {
+        return balance;
+    }
+
+    public void loadNextPage() {
+        ListState current = transactions.getValue();
+        if (current == null || !current.hasMore || loadingPage) {
+            return;
+        }
+        loadingPage = true;
+        seekOlder();
+    }
+
+    // Room re-runs the head query on every write to the table, so this is
+    // also the signal that loaded older rows may have been edited or deleted
+    private void onHeadChanged(List<Transaction> latest) {
+        if (latest == null) {
+            return;
+        }
+        olderGeneration++;
+        if (older.isEmpty() || latest.size() < PAGE_SIZE) {
+            older = new ArrayList<>();
+            olderHasMore = false;
+            loadingPage = false;
+            present();
+            return;
+        }
+        // Only rows near the head boundary can have crossed it, so re-seek the
+        // first older page and keep what was loaded below it
+        loadingPage = true;
+        Transaction last = lastOf(latest);
+        int requested = olderGeneration;
+        AppExecutors.getReadExecutor().execute(() -> {
+            List<Transaction> page = dao.getPageAfter(last.createdAt, last.id, PAGE_SIZE);
+            MAIN_HANDLER.post(() -> {
+                if (requested != olderGeneration) {
+                    return;
+                }
+                spliceOlder(latest, page);
+                loadingPage = false;
+                present();
+            });
+        });
+    }
+
+    // Rows below the fresh page stay as loaded, less any that moved up into
+    // the head or the page after an edit
+    private void spliceOlder(List<Transaction> latest, List<Transaction> page) {
+        List<Transaction> spliced = new ArrayList<>(page);
+        if (page.size() == PAGE_SIZE) {
+            Transaction boundary = page.get(page.size() - 1);
+            Set<Integer> shown = new HashSet<>();
+            for (Transaction transaction : latest) {
+                shown.add(transaction.id);
+            }
+            for (Transaction transaction : page) {
+                shown.add(transaction.id);
+            }
+            for (Transaction transaction : older) {
+                if (isBelow(transaction, boundary) && !shown.contains(transaction.id)) {
+                    spliced.add(transaction);
+                }
+            }
+        }
+        olderHasMore = spliced.size() > page.size() ? olderHasMore : page.size() == PAGE_SIZE;
+        older = spliced;
+    }
+
+    // Keyset order of PAGE_AFTER: created_at DESC, id DESC
+    private static boolean isBelow(Transaction transaction, Transaction boundary) {
+        return transaction.createdAt < boundary.createdAt
+                || (transaction.createdAt == boundary.createdAt && transaction.id < boundary.id);
+    }
+
+    private void seekOlder() {
+        Transaction last = older.isEmpty() ? lastOf(head.getValue()) : older.get(older.size() - 1);
+        if (last == null) {
+            loadingPage = false;
+            return;
+        }
+        int requested = olderGeneration;
+        AppExecutors.getReadExecutor().execute(() -> {
+            List<Transaction> page = dao.getPageAfter(last.createdAt, last.id, PAGE_SIZE);
+            MAIN_HANDLER.post(() -> {
+                if (requested != olderGeneration) {
+                    return;
+                }
+                List<Transaction> loaded = new ArrayList<>(older.size() + page.size());
+                loaded.addAll(older);
+                loaded.addAll(page);
+                older = loaded;
+                olderHasMore = page.size() == PAGE_SIZE;
+                loadingPage = false;
+                present();
+            });
+        });
+    }
+
+    private void present() {
+        List<Transaction> latest = head.getValue();
+        if (latest == null) {
+            return;
+        }
+        List<Transaction> loaded = new ArrayList<>(latest.size() + older.size());
+        loaded.addAll(latest);
+        loaded.addAll(older);
+        boolean hasMore = older.isEmpty() ? latest.size() == PAGE_SIZE : olderHasMore;
+        int requested = ++generation;
+        Set<Integer> hidden = new HashSet<>(hiddenIds);
+        AppExecutors.getReadExecutor().execute(() -> {
+            List<Transaction> visible = new ArrayList<>(loaded.size());
+            for (Transaction transaction : loaded) {
+                if (!hidden.contains(transaction.id)) {
+                    visible.add(transaction);
+                }
+            }
+            List<TransactionRow> rows = presenter.presentTransactions(visible);
+            // Checked on the main thread, where generation is bumped, so a
+            // newer emission or hide() cannot be overwritten by this one
+            MAIN_HANDLER.post(() -> {
+                if (requested == generation) {
+                    transactions.setValue(new ListState(rows, hasMore));
+                }
+            });
+        });
+    }
+
+    private static Transaction lastOf(List<Transaction> rows) {
+        return rows == null || rows.isEmpty() ? null : rows.get(rows.size() - 1);
+    }
+
+    public void hide(int transactionId) {
+        hiddenIds.add(transactionId);
+        ListState current = transactions.getValue();
+        if (current == null) {
+            return;
+        }
+        // Filter what is on screen rather than re-presenting the whole window
+        generation++;
+        List<TransactionRow> remaining = new ArrayList<>(current.rows.size());
+        for (TransactionRow row : current.rows) {
+            if (row.transaction.id != transactionId) {
+                remaining.add(row);
+            }
+        }
+        transactions.setValue(new ListState(remaining, current.hasMore));
+    }
+
+    // Undo, or a failed delete: the rows are still in the table
+    public void restore(Collection<Transaction> restored) {
+        for (Transaction transaction : restored) {
+            hiddenIds.remove(transaction.id);
+        }
+        present();
+    }
+
+    // The delete committed; the next emission no longer contains these rows.
+    // Older rows kept below the re-seeked page are not re-read, so drop them there.
+    public void forget(Collection<Transaction> deleted) {
+        Set<Integer> ids = new HashSet<>();
+        for (Transaction transaction : deleted) {
+            hiddenIds.remove(transaction.id);
+            ids.add(transaction.id);
+        }
+        List<Transaction> remaining = new ArrayList<>(older.size());
+        for (Transaction transaction : older) {
+            if (!ids.contains(transaction.id)) {
+                remaining.add(transaction);
+            }
+        }
+        older = remaining;
+    }
+
+    @Override
+    protected void onCleared() {
+        head.removeObserver(headObserver);
+    }
+}
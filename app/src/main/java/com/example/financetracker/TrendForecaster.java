@@ -0,0 +1,81 @@
+package com.example.financetracker;
+
+/**
+ * Pure-Java forecaster over the monthly expense series. Uses additive
+ * Holt-Winters once two full years are available and Holt's linear trend
+ * before that. Needs no native runtime and nothing to load.
+ */
+public class TrendForecaster implements Forecaster {
+    static final int SEASON_LENGTH = 12;
+
+    private final double alpha;
+    private final double beta;
+    private final double gamma;
+
+    public TrendForecaster() {
+        this(0.5, 0.3, 0.3);
+    }
+
+    public TrendForecaster(double alpha, double beta, double gamma) {
+        this.alpha = alpha;
+        this.beta = beta;
+        this.gamma = gamma;
+    }
+
+    @Override
+    public float forecastNextMonth(ForecastInput input) {
+        double[] y = input.monthlyExpenses;
+        int n = Math.min(input.months, y.length);
+        if (n == 0) {
+            return 0f;
+        }
+        if (n == 1) {
+            return (float) y[0];
+        }
+
+        double forecast = n >= 2 * SEASON_LENGTH ? holtWinters(y, n) : holtLinear(y, n);
+        return (float) Math.max(0, forecast);
+    }
+
+    double holtLinear(double[] y, int n) {
+        double level = y[0];
+        double trend = y[1] - y[0];
+        for (int t = 1; t < n; t++) {
+            double previousLevel = level;
+            level = alpha * y[t] + (1 - alpha) * (level + trend);
+            trend = beta * (level - previousLevel) + (1 - beta) * trend;
+        }
+        return level + trend;
+    }
+
+    double holtWinters(double[] y, int n) {
+        double firstMean = 0;
+        double secondMean = 0;
+        for (int i = 0; i < SEASON_LENGTH; i++) {
+            firstMean += y[i];
+            secondMean += y[i + SEASON_LENGTH];
+        }
+        firstMean /= SEASON_LENGTH;
+        secondMean /= SEASON_LENGTH;
+
+        double level = firstMean;
+        double trend = (secondMean - firstMean) / SEASON_LENGTH;
+        double[] seasonal = new double[SEASON_LENGTH];
+        for (int i = 0; i < SEASON_LENGTH; i++) {
+            seasonal[i] = y[i] - firstMean;
+        }
+
+        for (int t = SEASON_LENGTH; t < n; t++) {
+            int s = t % SEASON_LENGTH;
+            double previousLevel = level;
+            level = alpha * (y[t] - seasonal[s]) + (1 - alpha) * (level + trend);
+            trend = beta * (level - previousLevel) + (1 - beta) * trend;
+            seasonal[s] = gamma * (y[t] - level) + (1 - gamma) * seasonal[s];
+        }
+        return level + trend + seasonal[n % SEASON_LENGTH];
+    }
+
+    @Override
+    public void close() {
+    }
+}
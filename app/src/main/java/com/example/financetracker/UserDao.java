@@ -7,13 +7,16 @@ import androidx.room.Query;
 
     @Dao
     public interface UserDao {
+        String BY_EMAIL = "SELECT * FROM users WHERE email = :email LIMIT 1";
+        String AUTHENTICATE = "SELECT * FROM users WHERE email = :email AND password = :password LIMIT 1";
+
         @Insert
         long insert(User user);
 
-        @Query("SELECT * FROM users WHERE email = :email LIMIT 1")
+        @Query(BY_EMAIL)
         User getUserByEmail(String email);
 
-        @Query("SELECT * FROM users WHERE email = :email AND password = :password LIMIT 1")
+        @Query(AUTHENTICATE)
         User authenticate(String email, String password);
 
 
@@ -0,0 +1,103 @@
+package com.example.financetracker;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the AnomalyDetector thresholds and the Welford
+ * running statistics it keeps in CategoryStats.
+ */
+public class AnomalyDetectorTest {
+
+    @Test
+    public void fewerThanMinSamples_neverFlags() {
+        CategoryStats stats = new CategoryStats();
+        for (int i = 0; i < AnomalyDetector.MIN_SAMPLES - 1; i++) {
+            assertFalse(AnomalyDetector.scoreAndUpdate(stats, -(10 + i % 3)));
+        }
+        assertFalse(AnomalyDetector.scoreAndUpdate(stats, -10_000));
+    }
+
+    @Test
+    public void welfordMatchesTwoPass() {
+        double[] amounts = {12.5, 40, 7.25, 19.99, 120, 3, 55.5, 18, 22, 31.4, 9.95, 64};
+        CategoryStats stats = new CategoryStats();
+        for (double amount : amounts) {
+            AnomalyDetector.update(stats, amount);
+        }
+
+        double sum = 0;
+        for (double amount : amounts) {
+            sum += amount;
+        }
+        double mean = sum / amounts.length;
+        double squares = 0;
+        for (double amount : amounts) {
+            squares += (amount - mean) * (amount - mean);
+        }
+
+        assertEquals(amounts.length, stats.sampleCount);
+        assertEquals(mean, stats.mean, 1e-9);
+        assertEquals(squares, stats.m2, 1e-9);
+    }
+
+    @Test
+    public void clearOutlierAfterStableHistory_isFlagged() {
+        CategoryStats stats = new CategoryStats();
+        for (int i = 0; i < 50; i++) {
+            assertFalse(AnomalyDetector.scoreAndUpdate(stats, -(95 + i % 11)));
+        }
+        assertFalse(AnomalyDetector.scoreAndUpdate(stats, -104));
+        assertTrue(AnomalyDetector.scoreAndUpdate(stats, -1000));
+    }
+
+    @Test
+    public void needsBothScoresAboveThreshold() {
+        // sigma 10 on both scales
+        CategoryStats stats = stats(10, 10);
+        assertFalse(AnomalyDetector.isAnomalous(stats, 129));
+        // z 3.4 clears Z_THRESHOLD but the robust score is under ROBUST_THRESHOLD
+        assertFalse(AnomalyDetector.isAnomalous(stats, 134));
+        assertTrue(AnomalyDetector.isAnomalous(stats, 136));
+
+        // A tight median/MAD alone is not enough when the variance is wide
+        stats = stats(40, 5);
+        assertFalse(AnomalyDetector.isAnomalous(stats, 140));
+        // and a high z alone is not enough when the MAD is wide
+        stats = stats(5, 40);
+        assertFalse(AnomalyDetector.isAnomalous(stats, 140));
+    }
+
+    @Test
+    public void reestimateSketch_exactMedianAndMad() {
+        CategoryStats stats = new CategoryStats();
+        stats.stale = true;
+        double[] amounts = {-12, -3, -40, -7, -9, 0, 0};
+        AnomalyDetector.reestimateSketch(stats, amounts, 5);
+
+        // |amounts| 3, 7, 9, 12, 40; deviations from 9 are 6, 2, 0, 3, 31
+        assertEquals(9, stats.median, 1e-9);
+        assertEquals(3, stats.mad, 1e-9);
+        assertFalse(stats.stale);
+
+        AnomalyDetector.reestimateSketch(stats, amounts, 4);
+        assertEquals(9.5, stats.median, 1e-9);
+    }
+
+    @Test
+    public void belowMean_isNotFlagged() {
+        assertFalse(AnomalyDetector.isAnomalous(stats(10, 10), 0));
+    }
+
+    // 20 samples centred on 100 with the given standard deviation and robust sigma
+    private static CategoryStats stats(double sigma, double robustSigma) {
+        CategoryStats stats = new CategoryStats();
+        stats.sampleCount = 20;
+        stats.mean = 100;
+        stats.m2 = sigma * sigma * (stats.sampleCount - 1);
+        stats.median = 100;
+        stats.mad = robustSigma / 1.4826;
+        return stats;
+    }
+}
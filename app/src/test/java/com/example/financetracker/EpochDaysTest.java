@@ -0,0 +1,133 @@
+package com.example.financetracker;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for epoch-day conversion and period bounds, including
+ * daylight-saving transitions and days before 1970.
+ */
+public class EpochDaysTest {
+    private TimeZone original;
+
+    @Before
+    public void saveTimeZone() {
+        original = TimeZone.getDefault();
+    }
+
+    @After
+    public void restoreTimeZone() {
+        TimeZone.setDefault(original);
+    }
+
+    @Test
+    public void fromMillis_usesLocalDateAcrossSpringForward() {
+        useZone("Europe/London");
+        // Clocks go forward at 01:00 on 2024-03-31
+        assertEquals(day(2024, 3, 31), EpochDays.fromMillis(millis("Europe/London", 2024, 3, 31, 0, 30)));
+        assertEquals(day(2024, 3, 31), EpochDays.fromMillis(millis("Europe/London", 2024, 3, 31, 23, 30)));
+        assertEquals(day(2024, 4, 1), EpochDays.fromMillis(millis("Europe/London", 2024, 4, 1, 0, 30)));
+    }
+
+    @Test
+    public void fromMillis_usesLocalDateAcrossFallBack() {
+        useZone("Europe/London");
+        // 01:30 happens twice on 2024-10-27; both belong to the same day
+        long firstPass = millis("Europe/London", 2024, 10, 27, 0, 59) + 31 * 60_000L;
+        long secondPass = firstPass + 60 * 60_000L;
+        assertEquals(day(2024, 10, 27), EpochDays.fromMillis(firstPass));
+        assertEquals(day(2024, 10, 27), EpochDays.fromMillis(secondPass));
+        assertEquals(day(2024, 10, 27), EpochDays.fromMillis(millis("Europe/London", 2024, 10, 27, 23, 59)));
+    }
+
+    @Test
+    public void fromMillis_westOfUtcKeepsLocalDay() {
+        useZone("America/New_York");
+        // 23:30 local is already the next day in UTC
+        assertEquals(day(2024, 11, 3), EpochDays.fromMillis(millis("America/New_York", 2024, 11, 3, 23, 30)));
+        assertEquals(day(2024, 3, 10), EpochDays.fromMillis(millis("America/New_York", 2024, 3, 10, 23, 30)));
+    }
+
+    @Test
+    public void fromMillis_beforeEpochIsNegative() {
+        useZone("UTC");
+        assertEquals(-1, EpochDays.fromMillis(-1));
+        assertEquals(-1, EpochDays.fromMillis(-24L * 60 * 60 * 1000));
+        assertEquals(-2, EpochDays.fromMillis(-24L * 60 * 60 * 1000 - 1));
+
+        useZone("America/Los_Angeles");
+        // 1970-01-01T05:00Z is still 31 Dec 1969 in California
+        assertEquals(-1, EpochDays.fromMillis(5L * 60 * 60 * 1000));
+    }
+
+    @Test
+    public void toUtcMillis_negativeDay() {
+        assertEquals(-24L * 60 * 60 * 1000, EpochDays.toUtcMillis(-1));
+        assertEquals(0L, EpochDays.toUtcMillis(0));
+    }
+
+    @Test
+    public void weekBounds_startOnMonday() {
+        // 1970-01-01 was a Thursday
+        assertEquals(day(1969, 12, 29), EpochDays.startOfWeek(0));
+        assertEquals(day(1970, 1, 5), EpochDays.endOfWeek(0));
+        assertEquals(day(1969, 12, 29), EpochDays.startOfWeek(-1));
+        assertEquals(day(1969, 12, 22), EpochDays.startOfWeek(day(1969, 12, 28)));
+        assertEquals(day(2024, 3, 25), EpochDays.startOfWeek(day(2024, 3, 31)));
+        assertEquals(day(2024, 4, 1), EpochDays.startOfWeek(day(2024, 4, 1)));
+    }
+
+    @Test
+    public void monthBounds_beforeEpoch() {
+        assertEquals(day(1969, 12, 1), EpochDays.startOfMonth(-1));
+        assertEquals(0, EpochDays.endOfMonth(-1));
+        assertEquals(day(1969, 1, 1), EpochDays.startOfMonth(day(1969, 1, 31)));
+        assertEquals(day(1969, 2, 1), EpochDays.endOfMonth(day(1969, 1, 31)));
+    }
+
+    @Test
+    public void monthBounds_leapFebruary() {
+        assertEquals(day(2024, 2, 1), EpochDays.startOfMonth(day(2024, 2, 29)));
+        assertEquals(day(2024, 3, 1), EpochDays.endOfMonth(day(2024, 2, 10)));
+        assertEquals(day(2023, 3, 1), EpochDays.endOfMonth(day(2023, 2, 28)));
+    }
+
+    @Test
+    public void monthBounds_ignoreDefaultZone() {
+        useZone("Pacific/Kiritimati");
+        assertEquals(day(2024, 3, 1), EpochDays.startOfMonth(day(2024, 3, 31)));
+        useZone("Pacific/Pago_Pago");
+        assertEquals(day(2024, 4, 1), EpochDays.endOfMonth(day(2024, 3, 31)));
+    }
+
+    @Test
+    public void toIsoDate_matchesLocalDate() {
+        assertEquals("1969-12-31", EpochDays.toIsoDate(-1));
+        assertEquals("1970-01-01", EpochDays.toIsoDate(0));
+        assertEquals("2024-02-29", EpochDays.toIsoDate(day(2024, 2, 29)));
+        for (int d = day(1000, 1, 1); d <= day(9999, 12, 31); d++) {
+            assertEquals(LocalDate.ofEpochDay(d).toString(), EpochDays.toIsoDate(d));
+        }
+    }
+
+    private static void useZone(String id) {
+        TimeZone.setDefault(TimeZone.getTimeZone(id));
+    }
+
+    private static int day(int year, int month, int dayOfMonth) {
+        return (int) LocalDate.of(year, month, dayOfMonth).toEpochDay();
+    }
+
+    private static long millis(String zone, int year, int month, int dayOfMonth, int hour, int minute) {
+        return LocalDateTime.of(year, month, dayOfMonth, hour, minute)
+                .atZone(ZoneId.of(zone)).toInstant().toEpochMilli();
+    }
+}
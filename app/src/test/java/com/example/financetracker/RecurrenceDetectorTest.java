@@ -0,0 +1,134 @@
+package com.example.financetracker;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for series keys and period classification. Timing over a
+ * full history lives in RecurrenceBenchmarkTest.
+ */
+public class RecurrenceDetectorTest {
+    private static final int SERIES = 10_000;
+    private static final int MONTHS = 12;
+
+    @Test
+    public void keyFor_normalizesPunctuationAndCase() {
+        assertEquals(RecurrenceDetector.keyFor("NETFLIX.COM  *Subscription", -9.99),
+                RecurrenceDetector.keyFor("netflix com subscription", -10.25));
+    }
+
+    @Test
+    public void keyFor_keepsNonAsciiLettersAndDigits() {
+        assertNotEquals(RecurrenceDetector.keyFor("Miete Müller", -900),
+                RecurrenceDetector.keyFor("Miete Maier", -900));
+        assertNotEquals(RecurrenceDetector.keyFor("Flat 1 rent", -900),
+                RecurrenceDetector.keyFor("Flat 2 rent", -900));
+        assertTrue(RecurrenceDetector.keyFor("Café", -3).startsWith("café|"));
+    }
+
+    @Test
+    public void keyFor_separatesSignAndAmountBucket() {
+        assertNotEquals(RecurrenceDetector.keyFor("Transfer", -100),
+                RecurrenceDetector.keyFor("Transfer", 100));
+        assertNotEquals(RecurrenceDetector.keyFor("Transfer", -100),
+                RecurrenceDetector.keyFor("Transfer", -200));
+    }
+
+    @Test
+    public void monthlyWithJitter_isDetected() {
+        RecurringSeries series = new RecurringSeries();
+        int[] offsets = {0, 2, -1, 1, -2, 0};
+        for (int i = 0; i < offsets.length; i++) {
+            RecurrenceDetector.update(series, -12.99, 19723 + i * 30 + offsets[i]);
+        }
+        assertEquals(RecurringSeries.MONTHLY, series.period);
+        assertEquals(series.lastEpochDay + Math.round(series.intervalMean), series.nextEpochDay);
+    }
+
+    @Test
+    public void weeklyAndAnnual_areDetected() {
+        RecurringSeries weekly = new RecurringSeries();
+        RecurringSeries annual = new RecurringSeries();
+        for (int i = 0; i < 4; i++) {
+            RecurrenceDetector.update(weekly, -5, 19723 + i * 7);
+            RecurrenceDetector.update(annual, -80, 19723 + i * 365);
+        }
+        assertEquals(RecurringSeries.WEEKLY, weekly.period);
+        assertEquals(RecurringSeries.ANNUAL, annual.period);
+    }
+
+    @Test
+    public void tooFewOrIrregular_isNotDetected() {
+        RecurringSeries twice = new RecurringSeries();
+        RecurrenceDetector.update(twice, -5, 19723);
+        RecurrenceDetector.update(twice, -5, 19730);
+        assertNull(twice.period);
+
+        RecurringSeries irregular = new RecurringSeries();
+        int[] days = {0, 3, 40, 45, 120};
+        for (int day : days) {
+            RecurrenceDetector.update(irregular, -5, 19723 + day);
+        }
+        assertNull(irregular.period);
+    }
+
+    @Test
+    public void olderRow_countsTowardAmountOnly() {
+        RecurringSeries series = new RecurringSeries();
+        RecurrenceDetector.update(series, -10, 19800);
+        RecurrenceDetector.update(series, -20, 19700);
+        assertEquals(2, series.occurrences);
+        assertEquals(0, series.intervalCount);
+        assertEquals(19800, series.lastEpochDay);
+        assertEquals(-15, series.typicalAmount, 1e-9);
+    }
+
+    @Test
+    public void bucketRange_holdsEveryAmountWithTheSameKey() {
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            double amount = Math.round((random.nextDouble() - 0.5) * 2_000_000) / 100.0;
+            double[] range = RecurrenceDetector.bucketRange(amount);
+            assertTrue(amount + " outside " + range[0] + ".." + range[1],
+                    amount >= range[0] && amount <= range[1]);
+        }
+        double[] zero = RecurrenceDetector.bucketRange(0);
+        assertEquals(0, zero[0], 0);
+        assertTrue(zero[1] >= 0.01);
+    }
+
+    @Test
+    public void manySeries_allMonthly() {
+        String[] titles = new String[SERIES];
+        double[] amounts = new double[SERIES];
+        Random random = new Random(42);
+        for (int i = 0; i < SERIES; i++) {
+            titles[i] = "Merchant " + i + " *Card payment";
+            amounts[i] = -(5 + random.nextInt(500));
+        }
+
+        Map<String, RecurringSeries> series = new HashMap<>();
+        for (int i = 0; i < SERIES * MONTHS; i++) {
+            int s = i % SERIES;
+            int day = 19723 + (i / SERIES) * 30 + random.nextInt(5) - 2;
+            String key = RecurrenceDetector.keyFor(titles[s], amounts[s]);
+            RecurringSeries current = series.get(key);
+            if (current == null) {
+                current = new RecurringSeries();
+                current.seriesKey = key;
+                series.put(key, current);
+            }
+            RecurrenceDetector.update(current, amounts[s], day);
+        }
+
+        assertEquals(SERIES, series.size());
+        for (RecurringSeries s : series.values()) {
+            assertEquals(RecurringSeries.MONTHLY, s.period);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.financetracker;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the statement parsers; the batching and database
+ * side of the importer needs a device.
+ */
+public class StatementImporterTest {
+
+    @Test
+    public void splitCsvLine_plainFields() {
+        assertEquals(Arrays.asList("2024-01-05", "Coffee", "-3.20", "Food"),
+                StatementImporter.splitCsvLine("2024-01-05,Coffee,-3.20,Food"));
+    }
+
+    @Test
+    public void splitCsvLine_keepsEmptyFields() {
+        assertEquals(Arrays.asList("a", "", "c", ""),
+                StatementImporter.splitCsvLine("a,,c,"));
+    }
+
+    @Test
+    public void splitCsvLine_quotedComma() {
+        assertEquals(Arrays.asList("Smith, J", "-12.50", "Food"),
+                StatementImporter.splitCsvLine("\"Smith, J\",-12.50,Food"));
+    }
+
+    @Test
+    public void splitCsvLine_doubledQuoteIsLiteral() {
+        assertEquals(Arrays.asList("He said \"hi\"", "1"),
+                StatementImporter.splitCsvLine("\"He said \"\"hi\"\"\",1"));
+    }
+
+    @Test
+    public void splitCsvLine_quotedEmptyField() {
+        assertEquals(Arrays.asList("", "x"),
+                StatementImporter.splitCsvLine("\"\",x"));
+    }
+
+    @Test
+    public void splitCsvLine_quotedThousandsSeparator() {
+        assertEquals(Arrays.asList("Rent", "-1,250.00"),
+                StatementImporter.splitCsvLine("Rent,\"-1,250.00\""));
+    }
+
+    @Test
+    public void parseAmount_decimalPointOrComma() {
+        assertEquals(-3.2, StatementImporter.parseAmount("-3.20"), 1e-9);
+        assertEquals(-12.5, StatementImporter.parseAmount("-12,50"), 1e-9);
+        assertEquals(1500, StatementImporter.parseAmount("1500"), 1e-9);
+    }
+
+    @Test
+    public void parseAmount_thousandsSeparators() {
+        assertEquals(-1250, StatementImporter.parseAmount("-1,250.00"), 1e-9);
+        assertEquals(-1250, StatementImporter.parseAmount("-1.250,00"), 1e-9);
+        assertEquals(1250000, StatementImporter.parseAmount("1,250,000"), 1e-9);
+        assertEquals(1250000, StatementImporter.parseAmount("1.250.000"), 1e-9);
+    }
+
+    @Test
+    public void parseAmount_rejectsAmbiguousOrMalformed() {
+        String[] rejected = {"1,250", "-1,250", "12,50.3", "1.5,25", "1,2,3", ""};
+        for (String text : rejected) {
+            try {
+                StatementImporter.parseAmount(text);
+                fail("Parsed " + text);
+            } catch (NumberFormatException expected) {
+            }
+        }
+    }
+
+    @Test
+    public void parseOfx_sgmlWithoutClosingTags() throws IOException {
+        List<String[]> rows = parseOfx(
+                "<OFX>\n" +
+                "<BANKTRANLIST>\n" +
+                "<STMTTRN>\n" +
+                "<TRNTYPE>DEBIT\n" +
+                "<DTPOSTED>20240105120000[0:GMT]\n" +
+                "<TRNAMT>-3.20\n" +
+                "<NAME>Coffee Shop\n" +
+                "</STMTTRN>\n" +
+                "<STMTTRN>\n" +
+                "<DTPOSTED>20240106\n" +
+                "<TRNAMT>1500.00\n" +
+                "<MEMO>Salary\n" +
+                "</STMTTRN>\n" +
+                "</BANKTRANLIST>\n" +
+                "</OFX>\n");
+
+        assertEquals(2, rows.size());
+        assertArrayEquals(new String[]{"-3.20", "Coffee Shop", "20240105120000[0:GMT]"}, rows.get(0));
+        assertArrayEquals(new String[]{"1500.00", "Salary", "20240106"}, rows.get(1));
+    }
+
+    @Test
+    public void parseOfx_xmlOnOneLine() throws IOException {
+        List<String[]> rows = parseOfx("<STMTTRN><TRNAMT>-5.00</TRNAMT>" +
+                "<NAME>Shop</NAME><DTPOSTED>20240101</DTPOSTED></STMTTRN>");
+
+        assertEquals(1, rows.size());
+        assertArrayEquals(new String[]{"-5.00", "Shop", "20240101"}, rows.get(0));
+    }
+
+    @Test
+    public void parseOfx_namePreferredOverMemo() throws IOException {
+        List<String[]> rows = parseOfx("<STMTTRN>\n<MEMO>Card 1234\n<NAME>Grocer\n" +
+                "<MEMO>Ignored\n<TRNAMT>-9\n</STMTTRN>");
+
+        assertEquals("Grocer", rows.get(0)[1]);
+    }
+
+    @Test
+    public void parseOfx_ignoresTagsOutsideTransactions() throws IOException {
+        List<String[]> rows = parseOfx("<LEDGERBAL><BALAMT>100.00\n<TRNAMT>-1\n" +
+                "<STMTTRN>\n<TRNAMT>-2\n");
+
+        assertTrue(rows.isEmpty());
+    }
+
+    @Test
+    public void parseOfx_missingAmountIsStillReported() throws IOException {
+        List<String[]> rows = parseOfx("<STMTTRN>\n<NAME>No amount\n</STMTTRN>");
+
+        assertEquals(1, rows.size());
+        assertNull(rows.get(0)[0]);
+    }
+
+    private static List<String[]> parseOfx(String text) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        StatementImporter.parseOfx(new BufferedReader(new StringReader(text)),
+                (amount, title, date) -> rows.add(new String[]{amount, title, date}));
+        return rows;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.financetracker;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the CSV and JSON field escaping used by the exporter.
+ */
+public class TransactionExporterTest {
+
+    @Test
+    public void csv_nullIsEmpty() throws IOException {
+        assertEquals("", csv(null));
+    }
+
+    @Test
+    public void csv_plainValueIsUnquoted() throws IOException {
+        assertEquals("Coffee Shop", csv("Coffee Shop"));
+    }
+
+    @Test
+    public void csv_commaIsQuoted() throws IOException {
+        assertEquals("\"Smith, J\"", csv("Smith, J"));
+    }
+
+    @Test
+    public void csv_quoteIsDoubled() throws IOException {
+        assertEquals("\"12\"\" pizza\"", csv("12\" pizza"));
+    }
+
+    @Test
+    public void csv_lineBreaksAreQuoted() throws IOException {
+        assertEquals("\"line one\nline two\"", csv("line one\nline two"));
+        assertEquals("\"a\rb\"", csv("a\rb"));
+    }
+
+    @Test
+    public void csv_roundTripsThroughImporter() throws IOException {
+        String title = "He said \"hi\", then left";
+        StringWriter writer = new StringWriter();
+        TransactionExporter.writeCsvField(writer, title);
+        writer.write(",-3.20");
+        assertEquals(title, StatementImporter.splitCsvLine(writer.toString()).get(0));
+    }
+
+    @Test
+    public void json_nullIsLiteral() throws IOException {
+        assertEquals("null", json(null));
+    }
+
+    @Test
+    public void json_escapesQuotesAndBackslashes() throws IOException {
+        assertEquals("\"a \\\"b\\\" c\\\\d\"", json("a \"b\" c\\d"));
+    }
+
+    @Test
+    public void json_escapesWhitespaceControls() throws IOException {
+        assertEquals("\"a\\nb\\rc\\td\"", json("a\nb\rc\td"));
+    }
+
+    @Test
+    public void json_escapesOtherControlsAsUnicode() throws IOException {
+        assertEquals("\"\\u0001x\\u001f\"", json("\u0001x\u001f"));
+    }
+
+    @Test
+    public void json_keepsNonAscii() throws IOException {
+        assertEquals("\"Café £5 ☕\"", json("Café £5 ☕"));
+    }
+
+    private static String csv(String value) throws IOException {
+        StringWriter writer = new StringWriter();
+        TransactionExporter.writeCsvField(writer, value);
+        return writer.toString();
+    }
+
+    private static String json(String value) throws IOException {
+        StringWriter writer = new StringWriter();
+        TransactionExporter.writeJsonString(writer, value);
+        return writer.toString();
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.financetracker;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the pure-Java forecaster. ForecasterComparisonTest
+ * compares it with the TFLite model on a device.
+ */
+public class TrendForecasterTest {
+    private final TrendForecaster forecaster = new TrendForecaster();
+
+    @Test
+    public void emptyHistory_forecastsZero() {
+        assertEquals(0f, forecaster.forecastNextMonth(input(new double[0])), 0f);
+    }
+
+    @Test
+    public void singleMonth_forecastsThatMonth() {
+        assertEquals(420f, forecaster.forecastNextMonth(input(new double[]{420})), 0.001f);
+    }
+
+    @Test
+    public void linearSeries_extrapolatesTrend() {
+        double[] series = new double[12];
+        for (int i = 0; i < series.length; i++) {
+            series[i] = 1000 + 50 * i;
+        }
+        assertEquals(1600f, forecaster.forecastNextMonth(input(series)), 1f);
+    }
+
+    @Test
+    public void seasonalSeries_followsSeason() {
+        double[] series = seasonal(36, 0, null);
+        double expected = 1000 + 300 * Math.sin(2 * Math.PI * 36 / TrendForecaster.SEASON_LENGTH);
+        assertEquals(expected, forecaster.forecastNextMonth(input(series)), 60);
+    }
+
+    @Test
+    public void neverForecastsNegativeSpend() {
+        assertTrue(forecaster.forecastNextMonth(input(new double[]{500, 300, 100, 0})) >= 0f);
+    }
+
+    @Test
+    public void noisySeasonalSeries_beatsLastValue() {
+        Random random = new Random(42);
+        int runs = 200;
+        double trendError = 0;
+        double naiveError = 0;
+
+        for (int r = 0; r < runs; r++) {
+            double[] series = seasonal(37, 80, random);
+            double actual = series[36];
+            ForecastInput history = input(series);
+            history.months = 36;
+
+            trendError += Math.abs(forecaster.forecastNextMonth(history) - actual);
+            naiveError += Math.abs(series[35] - actual);
+        }
+
+        assertTrue("MAE " + trendError / runs + " vs last-value " + naiveError / runs,
+                trendError < naiveError);
+    }
+
+    private static double[] seasonal(int months, double noise, Random random) {
+        double[] series = new double[months];
+        for (int i = 0; i < months; i++) {
+            series[i] = 1000 + 300 * Math.sin(2 * Math.PI * i / TrendForecaster.SEASON_LENGTH)
+                    + (random != null ? random.nextGaussian() * noise : 0);
+        }
+        return series;
+    }
+
+    private static ForecastInput input(double[] series) {
+        ForecastInput input = new ForecastInput();
+        input.monthlyExpenses = series;
+        input.months = series.length;
+        return input;
+    }
+}